@@ -0,0 +1,114 @@
+import jade.core.AID;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+// Environment on the default 800x600 world with agents registered directly,
+// without JADE: 4 prey per predator and a food supply of a tenth of the
+// population (at least 50). Query positions and steps are precomputed.
+public class EnvironmentFixture implements benchmarks.WorldFixture {
+
+    private static final int POSITIONS = 4096; // power of two: query index = counter & (POSITIONS - 1)
+
+    private Environment environment;
+    private int agents;
+    private AID[] ids;
+    private Position[] current; // where each agent was last sent
+    private Position[] positions;
+    private Position[] moves;
+    private final double[] gradient = new double[2];
+    private int width, height;
+    private PrintStream stdout;
+
+    public void setup(int agents, long seed) {
+        // register/unregister log every call; keep the formatting cost but not the console flood
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        this.agents = agents;
+        Random random = new Random(seed);
+        environment = new Environment(new VisualizerAgent.SimParams(), seed);
+        width = environment.getWidth();
+        height = environment.getHeight();
+
+        ids = new AID[agents];
+        current = new Position[agents];
+        for (int i = 0; i < agents; i++) {
+            ids[i] = new AID("bench_" + i, AID.ISGUID);
+            Position p = new Position(random.nextDouble() * width, random.nextDouble() * height);
+            register(i, p);
+        }
+        int food = Math.max(50, agents / 10);
+        for (int i = 0; i < food; i++) {
+            environment.spawnFood(new Position(random.nextDouble() * width, random.nextDouble() * height));
+        }
+
+        positions = new Position[POSITIONS];
+        moves = new Position[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Position(random.nextDouble() * width, random.nextDouble() * height);
+            moves[i] = new Position((random.nextDouble() - 0.5) * 6, (random.nextDouble() - 0.5) * 6);
+        }
+    }
+
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    private void register(int a, Position p) {
+        boolean prey = a % 5 != 0;
+        current[a] = new Position(p.getX(), p.getY());
+        environment.registerAgent(ids[a], prey ? "PREY" : "PREDATOR", p, 100, prey ? 2.5 : 2.9, prey ? 70 : 110);
+    }
+
+    public Object getNearbyAgents(int i, double radius) {
+        return environment.getNearbyAgents(ids[i % agents], positions[i & (POSITIONS - 1)], radius);
+    }
+
+    public Object perceive(int i, double radius, double forestSight) {
+        return environment.perceive(ids[i % agents], positions[i & (POSITIONS - 1)], radius, forestSight);
+    }
+
+    // one agent step: a few pixels from where it is, sometimes across a grid cell
+    public void updatePosition(int i) {
+        int a = i % agents;
+        Position step = moves[i & (POSITIONS - 1)];
+        double x = Math.max(0, Math.min(width, current[a].getX() + step.getX()));
+        double y = Math.max(0, Math.min(height, current[a].getY() + step.getY()));
+        Position p = new Position(x, y);
+        current[a] = p;
+        environment.updatePosition(ids[a], p, 100);
+    }
+
+    public Object findNearestFood(int i, double radius) {
+        return environment.findNearestFood(positions[i & (POSITIONS - 1)], radius);
+    }
+
+    // what a foraging prey reads instead of a food search: level and gradient
+    public double foodScent(int i) {
+        Position p = positions[i & (POSITIONS - 1)];
+        FoodScent scent = environment.getScent();
+        scent.gradient(p.getX(), p.getY(), gradient);
+        return scent.sample(p.getX(), p.getY()) + gradient[0];
+    }
+
+    public Object checkPreyCollision(int i) {
+        return environment.checkPreyCollision(positions[i & (POSITIONS - 1)]);
+    }
+
+    public int terrainChecks(int i) {
+        Position p = positions[i & (POSITIONS - 1)];
+        int bits = environment.isObstacle(p.getX(), p.getY()) ? 1 : 0;
+        if (environment.isInForest(p)) bits |= 2;
+        if (environment.isInSwamp(p)) bits |= 4;
+        return bits;
+    }
+
+    // death and birth of one agent at constant population
+    public void registerUnregister(int i) {
+        int a = i % agents;
+        environment.unregisterAgent(ids[a]);
+        Position p = positions[i & (POSITIONS - 1)];
+        register(a, new Position(p.getX(), p.getY()));
+    }
+}
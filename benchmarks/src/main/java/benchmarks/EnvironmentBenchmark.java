@@ -0,0 +1,132 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Environment hot paths at increasing densities. Queries use the radii the
+// agents use: prey vision ~70, predator vision ~110, food search 150
+// (collision is 10, fixed inside checkPreyCollision).
+//
+// java -jar benchmarks/target/benchmarks.jar EnvironmentBenchmark -p agents=1000
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int agents;
+
+    private WorldFixture world;
+    private int cursor = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = WorldFixture.load("EnvironmentFixture");
+        world.setup(agents, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.tearDown();
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & Integer.MAX_VALUE;
+        return cursor;
+    }
+
+    @Benchmark
+    public Object getNearbyAgentsPrey() {
+        return world.getNearbyAgents(next(), 70);
+    }
+
+    @Benchmark
+    public Object getNearbyAgentsPredator() {
+        return world.getNearbyAgents(next(), 110);
+    }
+
+    // the single-pass perception the agents use (prey: no concealment, predators: forests hide prey)
+    @Benchmark
+    public Object perceivePrey() {
+        return world.perceive(next(), 70, 1.0);
+    }
+
+    @Benchmark
+    public Object perceivePredator() {
+        return world.perceive(next(), 110, 0.3);
+    }
+
+    @Benchmark
+    public void updatePosition() {
+        world.updatePosition(next());
+    }
+
+    @Benchmark
+    public Object findNearestFood() {
+        return world.findNearestFood(next(), 150);
+    }
+
+    @Benchmark
+    public double foodScent() {
+        return world.foodScent(next());
+    }
+
+    @Benchmark
+    public Object checkPreyCollision() {
+        return world.checkPreyCollision(next());
+    }
+
+    @Benchmark
+    public int terrainChecks() {
+        return world.terrainChecks(next());
+    }
+
+    @Benchmark
+    public void registerUnregister() {
+        world.registerUnregister(next());
+    }
+
+    // Same calls while other agent threads compete for the world's monitor
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        int value;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            value = (int) Thread.currentThread().getId() * 7919;
+        }
+
+        int next() {
+            value = (value + 1) & Integer.MAX_VALUE;
+            return value;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getNearbyAgentsContended(ThreadCursor c) {
+        return world.getNearbyAgents(c.next(), 110);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updatePositionContended(ThreadCursor c) {
+        world.updatePosition(c.next());
+    }
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+// The simulation classes live in the default package, which JMH benchmark
+// classes (and any named package) cannot reference. Fixtures in the default
+// package implement this interface and the benchmarks load them by name;
+// the call sites stay monomorphic, so the JIT inlines straight through.
+public interface WorldFixture {
+
+    void setup(int agents, long seed);
+
+    void tearDown();
+
+    // i is a running counter; fixtures map it onto their agents and query positions
+    Object getNearbyAgents(int i, double radius);
+
+    Object perceive(int i, double radius, double forestSight);
+
+    void updatePosition(int i);
+
+    Object findNearestFood(int i, double radius);
+
+    double foodScent(int i);
+
+    Object checkPreyCollision(int i);
+
+    int terrainChecks(int i);
+
+    void registerUnregister(int i);
+
+    static WorldFixture load(String className) {
+        try {
+            return (WorldFixture) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load fixture " + className, e);
+        }
+    }
+}
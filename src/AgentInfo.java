@@ -11,6 +11,12 @@ public class AgentInfo implements Serializable {
     private double speed;
     private double visionRange;
 
+    private double velocityX, velocityY; // last applied step, pixels per cycle
+
+    private final boolean prey;
+    transient int gridCell = -1; // Environment grid cell holding this agent
+    transient int flockCell = -1; // Environment flock-sum cell counting this agent
+
     public AgentInfo(AID aid, String type, Position position, int energy, double speed, double visionRange) {
         this.aid = aid;
         this.type = type;
@@ -18,6 +24,7 @@ public class AgentInfo implements Serializable {
         this.energy = energy;
         this.speed = speed;
         this.visionRange = visionRange;
+        this.prey = "PREY".equals(type);
     }
 
     public AID getAID() { return aid; }
@@ -26,12 +33,15 @@ public class AgentInfo implements Serializable {
     public int getEnergy() { return energy; }
     public double getSpeed() { return speed; }
     public double getVisionRange() { return visionRange; }
+    public double getVelocityX() { return velocityX; }
+    public double getVelocityY() { return velocityY; }
 
     public void setPosition(Position position) { this.position = position; }
     public void setEnergy(int energy) { this.energy = energy; }
+    public void setVelocity(double vx, double vy) { velocityX = vx; velocityY = vy; }
 
-    public boolean isPrey() { return "PREY".equals(type); }
-    public boolean isPredator() { return "PREDATOR".equals(type); }
+    public boolean isPrey() { return prey; }
+    public boolean isPredator() { return !prey && "PREDATOR".equals(type); }
 
     @Override
     public String toString() {
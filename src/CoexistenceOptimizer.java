@@ -0,0 +1,256 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Genetic algorithm over SimParams looking for long predator-prey coexistence.
+// A candidate's fitness is the fraction of the tick budget both species
+// survive (immigration off), averaged over a few fixed seeds so that every
+// candidate faces the same worlds. Candidates of a generation are evaluated
+// concurrently as headless worlds on the JVM's shared platform, and genes are
+// quantized so repeated vectors are answered from the cache instead of re-run.
+//
+// Usage: CoexistenceOptimizer [population=24] [generations=15] [replicas=2] [seed=1]
+//                             [ticks=3000] [prey=15] [predators=8] [parallelism=cores]
+//                             [out=evaluations.jsonl] [TIME_SCALE=4]
+//                             [PREY_REPRO_COST=40:100:1 PRED_SPEED=2.3:3.5:0.05 ...]
+// A gene is NAME=min:max[:step]; a plain NAME=value fixes a parameter for every run.
+// Without genes the default search space below is used.
+public class CoexistenceOptimizer {
+
+    private static class Gene {
+        final String name;
+        final double min, max, step;
+
+        Gene(String name, double min, double max, double step) {
+            this.name = name;
+            this.min = min;
+            this.max = max;
+            this.step = step;
+        }
+
+        double clamp(double v) {
+            v = Math.max(min, Math.min(max, v));
+            return step > 0 ? min + Math.round((v - min) / step) * step : v;
+        }
+    }
+
+    private static class Candidate {
+        final double[] genes;
+        double fitness;
+
+        Candidate(double[] genes) {
+            this.genes = genes;
+        }
+    }
+
+    private final List<Gene> genes = new ArrayList<>();
+    private final VisualizerAgent.SimParams baseParams = new VisualizerAgent.SimParams();
+    private final HeadlessSimulation.RunConfig config = new HeadlessSimulation.RunConfig();
+    private final Map<String, CompletableFuture<Double>> cache = new ConcurrentHashMap<>();
+    private int populationSize = 24;
+    private int generations = 15;
+    private int replicas = 2;
+    private long seed = 1;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private String output = null;
+
+    private ExecutorService pool;
+    private BufferedWriter writer;
+    private int evaluations = 0;
+
+    private void addDefaultGenes() {
+        genes.add(new Gene("PREY_REPRO_COST", 40, 100, 1));
+        genes.add(new Gene("PREY_SPEED", 2.0, 3.2, 0.05));
+        genes.add(new Gene("PRED_SPEED", 2.3, 3.5, 0.05));
+        genes.add(new Gene("PRED_ENERGY_GAIN", 40, 120, 1));
+        genes.add(new Gene("PRED_REPRO_COST", 60, 160, 1));
+        genes.add(new Gene("FOOD_SPAWN_RATE", 5, 20, 1));
+    }
+
+    public Candidate optimize() throws IOException {
+        if (genes.isEmpty()) addDefaultGenes();
+        config.stopWhen = "extinction";
+        config.recordSeries = false;
+        pool = Executors.newFixedThreadPool(parallelism);
+        if (output != null) writer = new BufferedWriter(new FileWriter(output));
+
+        Random random = new Random(seed);
+        List<Candidate> population = new ArrayList<>();
+        for (int i = 0; i < populationSize; i++) {
+            double[] g = new double[genes.size()];
+            for (int k = 0; k < g.length; k++) {
+                Gene gene = genes.get(k);
+                g[k] = gene.clamp(gene.min + random.nextDouble() * (gene.max - gene.min));
+            }
+            population.add(new Candidate(g));
+        }
+        // the hand-tuned defaults compete too
+        population.set(0, new Candidate(currentDefaults()));
+
+        Candidate best = null;
+        for (int gen = 0; gen < generations; gen++) {
+            evaluate(population);
+            population.sort(Comparator.comparingDouble((Candidate c) -> c.fitness).reversed());
+            if (best == null || population.get(0).fitness > best.fitness) best = population.get(0);
+            double mean = population.stream().mapToDouble(c -> c.fitness).average().orElse(0);
+            System.out.println(String.format(Locale.ROOT, "Gen %d: best %.3f  mean %.3f  (%d runs, %d cached vectors)  %s",
+                    gen, population.get(0).fitness, mean, evaluations, cache.size(), describe(population.get(0).genes)));
+            if (best.fitness >= 1.0) break; // every replica survived the full budget
+            population = nextGeneration(population, random);
+        }
+
+        pool.shutdown();
+        if (writer != null) writer.close();
+        return best;
+    }
+
+    private double[] currentDefaults() {
+        double[] g = new double[genes.size()];
+        for (int k = 0; k < g.length; k++) {
+            try {
+                Object v = VisualizerAgent.SimParams.class.getField(genes.get(k).name).get(baseParams);
+                g[k] = genes.get(k).clamp(((Number) v).doubleValue());
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Unknown parameter: " + genes.get(k).name);
+            }
+        }
+        return g;
+    }
+
+    // Elitism, tournament selection, blend crossover and gaussian mutation
+    private List<Candidate> nextGeneration(List<Candidate> sorted, Random random) {
+        List<Candidate> next = new ArrayList<>();
+        int elite = Math.max(1, populationSize / 10);
+        for (int i = 0; i < elite; i++) next.add(sorted.get(i));
+
+        while (next.size() < populationSize) {
+            Candidate a = tournament(sorted, random);
+            Candidate b = tournament(sorted, random);
+            double[] child = new double[genes.size()];
+            for (int k = 0; k < child.length; k++) {
+                Gene gene = genes.get(k);
+                double lo = Math.min(a.genes[k], b.genes[k]);
+                double hi = Math.max(a.genes[k], b.genes[k]);
+                double spread = (hi - lo) * 0.5; // BLX-0.5
+                double v = lo - spread + random.nextDouble() * (hi - lo + 2 * spread);
+                if (random.nextDouble() < 1.0 / child.length) v += random.nextGaussian() * 0.1 * (gene.max - gene.min);
+                child[k] = gene.clamp(v);
+            }
+            next.add(new Candidate(child));
+        }
+        return next;
+    }
+
+    private Candidate tournament(List<Candidate> population, Random random) {
+        Candidate best = null;
+        for (int i = 0; i < 3; i++) {
+            Candidate c = population.get(random.nextInt(population.size()));
+            if (best == null || c.fitness > best.fitness) best = c;
+        }
+        return best;
+    }
+
+    private void evaluate(List<Candidate> population) {
+        List<CompletableFuture<Double>> pending = new ArrayList<>();
+        for (Candidate c : population) {
+            // identical vectors share one evaluation, even within a generation
+            pending.add(cache.computeIfAbsent(key(c.genes), k -> CompletableFuture.supplyAsync(() -> fitness(c.genes), pool)));
+        }
+        for (int i = 0; i < population.size(); i++) population.get(i).fitness = pending.get(i).join();
+    }
+
+    private double fitness(double[] g) {
+        VisualizerAgent.SimParams params = baseParams.copy();
+        for (int k = 0; k < g.length; k++) params.set(genes.get(k).name, String.valueOf(g[k]));
+
+        double total = 0;
+        for (int r = 0; r < replicas; r++) {
+            HeadlessSimulation.RunConfig run = config.copy();
+            run.seed = seed + r;
+            try {
+                HeadlessSimulation.Result result = HeadlessSimulation.run(params.copy(), run);
+                total += (double) result.ticks / config.ticks;
+                record(g, r, result);
+            } catch (RuntimeException e) {
+                System.err.println("Evaluation failed: " + e.getMessage());
+            }
+        }
+        return total / replicas;
+    }
+
+    private synchronized void record(double[] g, int replica, HeadlessSimulation.Result result) {
+        evaluations++;
+        if (writer == null) return;
+        try {
+            writer.write("{\"params\":{" + describeJson(g) + "},\"replica\":" + replica + ",\"result\":" + result.toJson() + "}");
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Cannot write evaluation: " + e.getMessage());
+        }
+    }
+
+    private String key(double[] g) {
+        return Arrays.toString(g);
+    }
+
+    private String describe(double[] g) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < g.length; k++) {
+            if (k > 0) sb.append(' ');
+            sb.append(genes.get(k).name).append('=').append(String.format(Locale.ROOT, "%.4g", g[k]));
+        }
+        return sb.toString();
+    }
+
+    private String describeJson(double[] g) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < g.length; k++) {
+            if (k > 0) sb.append(',');
+            sb.append('"').append(genes.get(k).name).append("\":").append(String.format(Locale.ROOT, "%s", g[k]));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        CoexistenceOptimizer optimizer = new CoexistenceOptimizer();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "population": optimizer.populationSize = Math.max(4, Integer.parseInt(kv[1])); break;
+                case "generations": optimizer.generations = Integer.parseInt(kv[1]); break;
+                case "replicas": optimizer.replicas = Math.max(1, Integer.parseInt(kv[1])); break;
+                case "seed": optimizer.seed = Long.parseLong(kv[1]); break;
+                case "parallelism": optimizer.parallelism = Integer.parseInt(kv[1]); break;
+                case "out": optimizer.output = kv[1]; break;
+                case "ticks": optimizer.config.ticks = Integer.parseInt(kv[1]); break;
+                case "prey": optimizer.config.prey = Integer.parseInt(kv[1]); break;
+                case "predators": optimizer.config.predators = Integer.parseInt(kv[1]); break;
+                default:
+                    String[] r = kv[1].split(":");
+                    if (r.length == 1) {
+                        optimizer.baseParams.set(kv[0], kv[1]);
+                    } else {
+                        double step = r.length > 2 ? Double.parseDouble(r[2]) : 0;
+                        optimizer.genes.add(new Gene(kv[0], Double.parseDouble(r[0]), Double.parseDouble(r[1]), step));
+                    }
+            }
+        }
+
+        Candidate best = optimizer.optimize();
+        System.out.println(String.format(Locale.ROOT, "Best coexistence %.3f: %s", best.fitness, optimizer.describe(best.genes)));
+        System.exit(0); // headless worlds keep the JADE platform alive
+    }
+}
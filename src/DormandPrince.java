@@ -0,0 +1,227 @@
+import java.util.Arrays;
+
+// Adaptive Runge-Kutta 5(4) integrator (Dormand-Prince) with step size control
+// and 4th order dense output (Hairer's DOPRI5 continuous extension).
+public class DormandPrince {
+
+    public interface OdeSystem {
+        void derivatives(double t, double[] y, double[] dydt);
+    }
+
+    // Butcher tableau
+    private static final double C2 = 1.0 / 5, C3 = 3.0 / 10, C4 = 4.0 / 5, C5 = 8.0 / 9;
+    private static final double A21 = 1.0 / 5;
+    private static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    private static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    private static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561, A54 = -212.0 / 729;
+    private static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247, A64 = 49.0 / 176, A65 = -5103.0 / 18656;
+    private static final double A71 = 35.0 / 384, A73 = 500.0 / 1113, A74 = 125.0 / 192, A75 = -2187.0 / 6784, A76 = 11.0 / 84;
+
+    // Error estimate weights (5th order minus embedded 4th order)
+    private static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920,
+            E5 = -17253.0 / 339200, E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    // Dense output weights
+    private static final double D1 = -12715105075.0 / 11282082432.0, D3 = 87487479700.0 / 32700410799.0,
+            D4 = -10690763975.0 / 1880347072.0, D5 = 701980252875.0 / 199316789632.0,
+            D6 = -1453857185.0 / 822651844.0, D7 = 69997945.0 / 29380423.0;
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+
+    private final double rtol;
+    private final double atol;
+    private int maxSteps = 1_000_000;
+
+    public DormandPrince(double rtol, double atol) {
+        this.rtol = rtol;
+        this.atol = atol;
+    }
+
+    public void setMaxSteps(int maxSteps) { this.maxSteps = maxSteps; }
+
+    public Solution integrate(OdeSystem system, double t0, double[] y0, double tEnd) {
+        int n = y0.length;
+        double[] y = y0.clone();
+        double[] yNew = new double[n];
+        double[] yTmp = new double[n];
+        double[] k1 = new double[n], k2 = new double[n], k3 = new double[n], k4 = new double[n],
+                 k5 = new double[n], k6 = new double[n], k7 = new double[n];
+
+        Solution sol = new Solution(n);
+        system.derivatives(t0, y, k1);
+        double t = t0;
+        double h = initialStep(system, t0, y, k1, tEnd - t0, k2, yTmp);
+        int steps = 0;
+
+        while (t < tEnd) {
+            if (steps++ >= maxSteps) {
+                throw new IllegalStateException("Dormand-Prince: too many steps before t=" + tEnd);
+            }
+            if (t + h > tEnd) h = tEnd - t;
+
+            for (int i = 0; i < n; i++) yTmp[i] = y[i] + h * A21 * k1[i];
+            system.derivatives(t + C2 * h, yTmp, k2);
+            for (int i = 0; i < n; i++) yTmp[i] = y[i] + h * (A31 * k1[i] + A32 * k2[i]);
+            system.derivatives(t + C3 * h, yTmp, k3);
+            for (int i = 0; i < n; i++) yTmp[i] = y[i] + h * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+            system.derivatives(t + C4 * h, yTmp, k4);
+            for (int i = 0; i < n; i++) yTmp[i] = y[i] + h * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+            system.derivatives(t + C5 * h, yTmp, k5);
+            for (int i = 0; i < n; i++) yTmp[i] = y[i] + h * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+            system.derivatives(t + h, yTmp, k6);
+            for (int i = 0; i < n; i++) yNew[i] = y[i] + h * (A71 * k1[i] + A73 * k3[i] + A74 * k4[i] + A75 * k5[i] + A76 * k6[i]);
+            system.derivatives(t + h, yNew, k7);
+
+            double err = 0;
+            for (int i = 0; i < n; i++) {
+                double e = h * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+                double sc = atol + rtol * Math.max(Math.abs(y[i]), Math.abs(yNew[i]));
+                err += (e / sc) * (e / sc);
+            }
+            err = Math.sqrt(err / n);
+
+            if (err <= 1.0 || h <= Math.ulp(t) * 16) {
+                sol.addStep(t, h, y, yNew, k1, k3, k4, k5, k6, k7);
+                t += h;
+                System.arraycopy(yNew, 0, y, 0, n);
+                // FSAL: last stage is the first stage of the next step
+                double[] swap = k1; k1 = k7; k7 = swap;
+            } else {
+                sol.rejected++;
+            }
+
+            double factor = err == 0 ? MAX_FACTOR : SAFETY * Math.pow(err, -0.2);
+            h *= Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, factor));
+        }
+        sol.finish(t, y);
+        return sol;
+    }
+
+    // Hairer & Wanner's starting step heuristic
+    private double initialStep(OdeSystem system, double t0, double[] y0, double[] f0, double span, double[] f1, double[] y1) {
+        int n = y0.length;
+        double d0 = 0, d1 = 0;
+        for (int i = 0; i < n; i++) {
+            double sc = atol + rtol * Math.abs(y0[i]);
+            d0 += (y0[i] / sc) * (y0[i] / sc);
+            d1 += (f0[i] / sc) * (f0[i] / sc);
+        }
+        d0 = Math.sqrt(d0 / n);
+        d1 = Math.sqrt(d1 / n);
+        double h0 = (d0 < 1e-5 || d1 < 1e-5) ? 1e-6 : 0.01 * d0 / d1;
+        h0 = Math.min(h0, span);
+
+        for (int i = 0; i < n; i++) y1[i] = y0[i] + h0 * f0[i];
+        system.derivatives(t0 + h0, y1, f1);
+        double d2 = 0;
+        for (int i = 0; i < n; i++) {
+            double sc = atol + rtol * Math.abs(y0[i]);
+            double d = (f1[i] - f0[i]) / sc;
+            d2 += d * d;
+        }
+        d2 = Math.sqrt(d2 / n) / h0;
+
+        double h1 = Math.max(d1, d2) <= 1e-15
+                ? Math.max(1e-6, h0 * 1e-3)
+                : Math.pow(0.01 / Math.max(d1, d2), 0.2);
+        return Math.min(Math.min(100 * h0, h1), span);
+    }
+
+    // Piecewise polynomial solution; each accepted step keeps 5 coefficient vectors
+    public static class Solution {
+        private final int dim;
+        private double[] times = new double[64];
+        private double[] coeffs;
+        private int steps = 0;
+        private int rejected = 0;
+        private double tEnd;
+        private double[] yEnd;
+
+        Solution(int dim) {
+            this.dim = dim;
+            this.coeffs = new double[64 * 5 * dim];
+        }
+
+        private void addStep(double t, double h, double[] y, double[] yNew,
+                             double[] k1, double[] k3, double[] k4, double[] k5, double[] k6, double[] k7) {
+            if (steps + 1 >= times.length) {
+                times = Arrays.copyOf(times, times.length * 2);
+                coeffs = Arrays.copyOf(coeffs, coeffs.length * 2);
+            }
+            times[steps] = t;
+            int base = steps * 5 * dim;
+            for (int i = 0; i < dim; i++) {
+                double ydiff = yNew[i] - y[i];
+                double bspl = h * k1[i] - ydiff;
+                coeffs[base + i] = y[i];
+                coeffs[base + dim + i] = ydiff;
+                coeffs[base + 2 * dim + i] = bspl;
+                coeffs[base + 3 * dim + i] = ydiff - h * k7[i] - bspl;
+                coeffs[base + 4 * dim + i] = h * (D1 * k1[i] + D3 * k3[i] + D4 * k4[i] + D5 * k5[i] + D6 * k6[i] + D7 * k7[i]);
+            }
+            steps++;
+        }
+
+        private void finish(double t, double[] y) {
+            times[steps] = t;
+            tEnd = t;
+            yEnd = y.clone();
+        }
+
+        public int getStepCount() { return steps; }
+        public int getRejectedCount() { return rejected; }
+        public double getStartTime() { return times[0]; }
+        public double getEndTime() { return tEnd; }
+        public double[] getFinalState() { return yEnd.clone(); }
+
+        // Step boundaries, i.e. the points the integrator actually visited
+        public double[] getStepTimes() { return Arrays.copyOf(times, steps + 1); }
+
+        public double valueAt(double t, int component) {
+            if (steps == 0 || t >= tEnd) return yEnd[component];
+            return interpolate(findStep(t), t, component);
+        }
+
+        // Samples one component on a uniform time grid of the given size
+        public double[] sample(int component, int points) {
+            double[] out = new double[points];
+            double t0 = times[0];
+            double span = tEnd - t0;
+            int s = 0;
+            for (int p = 0; p < points; p++) {
+                double t = points == 1 ? t0 : t0 + span * p / (points - 1);
+                if (steps == 0 || t >= tEnd) {
+                    out[p] = yEnd[component];
+                    continue;
+                }
+                while (s < steps - 1 && times[s + 1] <= t) s++;
+                out[p] = interpolate(s, t, component);
+            }
+            return out;
+        }
+
+        private double interpolate(int s, double t, int component) {
+            double h = times[s + 1] - times[s];
+            double theta = (t - times[s]) / h;
+            double theta1 = 1.0 - theta;
+            int base = s * 5 * dim + component;
+            return coeffs[base]
+                    + theta * (coeffs[base + dim]
+                    + theta1 * (coeffs[base + 2 * dim]
+                    + theta * (coeffs[base + 3 * dim]
+                    + theta1 * coeffs[base + 4 * dim])));
+        }
+
+        private int findStep(double t) {
+            int lo = 0, hi = steps - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (times[mid] <= t) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Monte Carlo ensemble: N seeded headless replicas of the same parameters run
+// in parallel. Per-sample population statistics are aggregated as the replicas
+// report them (Welford mean, P-square quantile sketches), so no trajectory is
+// stored and memory only grows with the number of sample points.
+public class EnsembleRunner {
+
+    public static final double LOW_QUANTILE = 0.1;
+    public static final double HIGH_QUANTILE = 0.9;
+
+    private final VisualizerAgent.SimParams params;
+    private final HeadlessSimulation.RunConfig config;
+    private final Statistics statistics = new Statistics();
+    private final AtomicInteger finished = new AtomicInteger(); // incremented by every pool thread
+    private volatile boolean cancelled = false;
+
+    public EnsembleRunner(VisualizerAgent.SimParams params, HeadlessSimulation.RunConfig config) {
+        this.params = params;
+        this.config = config;
+    }
+
+    public Statistics getStatistics() { return statistics; }
+    public int getFinished() { return finished.get(); }
+    public void cancel() { cancelled = true; }
+
+    public void run(int replicas, long seed, int parallelism) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        for (int r = 0; r < replicas; r++) {
+            HeadlessSimulation.RunConfig replica = config.copy();
+            replica.seed = seed + r;
+            replica.recordSeries = false;
+            replica.listener = statistics::add;
+            pool.submit(() -> {
+                if (cancelled) return;
+                try {
+                    HeadlessSimulation.run(params.copy(), replica);
+                } catch (RuntimeException e) {
+                    System.err.println("Ensemble replica failed: " + e.getMessage());
+                } finally {
+                    finished.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    // ==========================================
+    // STATISTICS
+    // ==========================================
+    public static class Statistics {
+        private final List<SampleStats> prey = new ArrayList<>();
+        private final List<SampleStats> predators = new ArrayList<>();
+
+        public synchronized void add(int index, int preyCount, int predatorCount) {
+            while (prey.size() <= index) {
+                prey.add(new SampleStats());
+                predators.add(new SampleStats());
+            }
+            prey.get(index).add(preyCount);
+            predators.get(index).add(predatorCount);
+        }
+
+        public synchronized Snapshot snapshot() {
+            return new Snapshot(prey, predators);
+        }
+    }
+
+    private static class SampleStats {
+        int count;
+        double mean, m2;
+        final P2Quantile low = new P2Quantile(LOW_QUANTILE);
+        final P2Quantile median = new P2Quantile(0.5);
+        final P2Quantile high = new P2Quantile(HIGH_QUANTILE);
+
+        void add(double x) {
+            count++;
+            double d = x - mean;
+            mean += d / count;
+            m2 += d * (x - mean);
+            low.add(x);
+            median.add(x);
+            high.add(x);
+        }
+    }
+
+    // Immutable band arrays, index = sample number
+    public static class Snapshot {
+        public final int[] count;
+        public final double[] preyMean, preyLow, preyMedian, preyHigh, preyStdDev;
+        public final double[] predMean, predLow, predMedian, predHigh, predStdDev;
+
+        Snapshot(List<SampleStats> prey, List<SampleStats> predators) {
+            int n = prey.size();
+            count = new int[n];
+            preyMean = new double[n]; preyLow = new double[n]; preyMedian = new double[n]; preyHigh = new double[n]; preyStdDev = new double[n];
+            predMean = new double[n]; predLow = new double[n]; predMedian = new double[n]; predHigh = new double[n]; predStdDev = new double[n];
+            for (int i = 0; i < n; i++) {
+                SampleStats a = prey.get(i), b = predators.get(i);
+                count[i] = a.count;
+                preyMean[i] = a.mean;
+                preyLow[i] = a.low.value();
+                preyMedian[i] = a.median.value();
+                preyHigh[i] = a.high.value();
+                preyStdDev[i] = a.count > 1 ? Math.sqrt(a.m2 / (a.count - 1)) : 0;
+                predMean[i] = b.mean;
+                predLow[i] = b.low.value();
+                predMedian[i] = b.median.value();
+                predHigh[i] = b.high.value();
+                predStdDev[i] = b.count > 1 ? Math.sqrt(b.m2 / (b.count - 1)) : 0;
+            }
+        }
+
+        public int size() { return count.length; }
+    }
+
+    // Jain & Chlamtac P-square estimator: one quantile from 5 markers, O(1) memory
+    static class P2Quantile {
+        private final double p;
+        private final double[] q = new double[5];
+        private final double[] n = new double[5];
+        private final double[] desired = new double[5];
+        private final double[] increment = new double[5];
+        private int count = 0;
+
+        P2Quantile(double p) {
+            this.p = p;
+        }
+
+        void add(double x) {
+            if (count < 5) {
+                q[count++] = x;
+                if (count == 5) {
+                    Arrays.sort(q);
+                    for (int i = 0; i < 5; i++) n[i] = i + 1;
+                    desired[0] = 1; desired[1] = 1 + 2 * p; desired[2] = 1 + 4 * p; desired[3] = 3 + 2 * p; desired[4] = 5;
+                    increment[0] = 0; increment[1] = p / 2; increment[2] = p; increment[3] = (1 + p) / 2; increment[4] = 1;
+                }
+                return;
+            }
+            count++;
+
+            int k;
+            if (x < q[0]) { q[0] = x; k = 0; }
+            else if (x < q[1]) k = 0;
+            else if (x < q[2]) k = 1;
+            else if (x < q[3]) k = 2;
+            else if (x <= q[4]) k = 3;
+            else { q[4] = x; k = 3; }
+
+            for (int i = k + 1; i < 5; i++) n[i]++;
+            for (int i = 0; i < 5; i++) desired[i] += increment[i];
+
+            for (int i = 1; i <= 3; i++) {
+                double d = desired[i] - n[i];
+                if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                    int s = d > 0 ? 1 : -1;
+                    double candidate = parabolic(i, s);
+                    if (q[i - 1] < candidate && candidate < q[i + 1]) q[i] = candidate;
+                    else q[i] = q[i] + s * (q[i + s] - q[i]) / (n[i + s] - n[i]);
+                    n[i] += s;
+                }
+            }
+        }
+
+        private double parabolic(int i, int s) {
+            return q[i] + s / (n[i + 1] - n[i - 1])
+                    * ((n[i] - n[i - 1] + s) * (q[i + 1] - q[i]) / (n[i + 1] - n[i])
+                    + (n[i + 1] - n[i] - s) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]));
+        }
+
+        double value() {
+            if (count == 0) return 0;
+            if (count < 5) {
+                double[] sorted = Arrays.copyOf(q, count);
+                Arrays.sort(sorted);
+                return sorted[(int) Math.round(p * (count - 1))];
+            }
+            return q[2];
+        }
+    }
+
+    // Usage: EnsembleRunner [replicas=32] [seed=1] [ticks=3000] [sampleEvery=10] [prey=15] [predators=8]
+    //                       [parallelism=cores] [SIMPARAM=value ...]
+    // Prints one CSV row per sample point with mean and 10/50/90% quantiles.
+    public static void main(String[] args) throws InterruptedException {
+        VisualizerAgent.SimParams params = new VisualizerAgent.SimParams();
+        HeadlessSimulation.RunConfig config = new HeadlessSimulation.RunConfig();
+        int replicas = 32;
+        long seed = 1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "replicas": replicas = Integer.parseInt(kv[1]); break;
+                case "seed": seed = Long.parseLong(kv[1]); break;
+                case "parallelism": parallelism = Integer.parseInt(kv[1]); break;
+                case "ticks": config.ticks = Integer.parseInt(kv[1]); break;
+                case "sampleEvery": config.sampleEvery = Math.max(1, Integer.parseInt(kv[1])); break;
+                case "prey": config.prey = Integer.parseInt(kv[1]); break;
+                case "predators": config.predators = Integer.parseInt(kv[1]); break;
+                case "stop": config.stopWhen = kv[1]; break;
+                default: params.set(kv[0], kv[1]);
+            }
+        }
+
+        EnsembleRunner ensemble = new EnsembleRunner(params, config);
+        ensemble.run(replicas, seed, parallelism);
+
+        Snapshot s = ensemble.getStatistics().snapshot();
+        System.out.println("tick,replicas,prey_mean,prey_p10,prey_p50,prey_p90,pred_mean,pred_p10,pred_p50,pred_p90");
+        for (int i = 0; i < s.size(); i++) {
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%.2f,%.1f,%.1f,%.1f,%.2f,%.1f,%.1f,%.1f",
+                    (i + 1) * config.sampleEvery, s.count[i],
+                    s.preyMean[i], s.preyLow[i], s.preyMedian[i], s.preyHigh[i],
+                    s.predMean[i], s.predLow[i], s.predMedian[i], s.predHigh[i]));
+        }
+        System.exit(0);
+    }
+}
@@ -2,6 +2,7 @@ import jade.core.AID;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.awt.Shape;
 import java.awt.geom.Area;
@@ -11,20 +12,36 @@ import java.awt.Polygon;
 
 public class Environment {
     private static Environment instance;
+    private static final java.util.concurrent.atomic.AtomicInteger worldIds = new java.util.concurrent.atomic.AtomicInteger();
+
+    private final int id;
+    private final VisualizerAgent.SimParams params;
+    private final Random random;
     private int width = 800;
     private int height = 600;
     
     // Spatial Partitioning
     private static final int GRID_CELL_SIZE = 100;
-    private Map<String, List<AgentInfo>> spatialGrid;
+    private int gridCols, gridRows;
+    private List<AgentInfo>[] spatialGrid; // row-major cells, guarded by this
+
+    // per-cell prey sums for flocking (position, velocity, count) on a finer grid
+    // of their own, so a flocking disk is covered closely; guarded by this
+    private static final int FLOCK_CELL_SIZE = 20;
+    private int flockCols, flockRows;
+    private double[] flockSumX, flockSumY, flockSumVX, flockSumVY;
+    private int[] flockCount;
     
     private Map<AID, AgentInfo> agents;
     private List<Food> foods;
+    private List<Food>[] foodGrid; // food by spatial grid cell, guarded by this
+    private FoodScent scent;
 
     // terrain clusters
     private List<Shape> forestTrees;
     private List<Shape> swamps;
     private List<Shape> rocks;
+    private TerrainMap terrain; // rasterised copy of the shapes above, for lookups
 
     // seasons
     public enum Season { SPRING, SUMMER, AUTUMN, WINTER }
@@ -32,38 +49,119 @@ public class Environment {
     private int seasonTick = 0;
     private static final int SEASON_DURATION = 300;
 
-    // death statistics
-    public static class DeathStats {
-        public int preyHunted = 0;
-        public int preyStarved = 0;
-        public int preyOldAge = 0;
-        public int predStarved = 0;
-        
+    private static final EventLog.Sampler LOG_REGISTERED = EventLog.sampler("register", EventLog.Level.INFO, 1);
+    private static final EventLog.Sampler LOG_REMOVED = EventLog.sampler("unregister", EventLog.Level.INFO, 1);
+
+    // life statistics, fed by the event bus; striped counters so agents never contend
+    public static class DeathStats implements LifeEventBus.Listener {
+        private final LongAdder[] deaths = new LongAdder[LifeEventBus.Species.values().length * LifeEventBus.Cause.values().length];
+        private final LongAdder preyBirths = new LongAdder();
+        private final LongAdder predBirths = new LongAdder();
+        private final LongAdder captures = new LongAdder();
+
+        DeathStats() {
+            for (int i = 0; i < deaths.length; i++) deaths[i] = new LongAdder();
+        }
+
+        private LongAdder counter(LifeEventBus.Species species, LifeEventBus.Cause cause) {
+            return deaths[species.ordinal() * LifeEventBus.Cause.values().length + cause.ordinal()];
+        }
+
+        public void onBirth(LifeEventBus.Birth birth) {
+            (birth.species == LifeEventBus.Species.PREY ? preyBirths : predBirths).increment();
+        }
+
+        public void onDeath(LifeEventBus.Death death) {
+            counter(death.species, death.cause).increment();
+        }
+
+        public void onCapture(LifeEventBus.Capture capture) {
+            captures.increment();
+        }
+
+        public long getPreyHunted() { return counter(LifeEventBus.Species.PREY, LifeEventBus.Cause.HUNTED).sum(); }
+        public long getPreyStarved() { return counter(LifeEventBus.Species.PREY, LifeEventBus.Cause.STARVED).sum(); }
+        public long getPreyOldAge() { return counter(LifeEventBus.Species.PREY, LifeEventBus.Cause.OLD_AGE).sum(); }
+        public long getPredStarved() { return counter(LifeEventBus.Species.PREDATOR, LifeEventBus.Cause.STARVED).sum(); }
+        public long getPreyBirths() { return preyBirths.sum(); }
+        public long getPredBirths() { return predBirths.sum(); }
+        public long getCaptures() { return captures.sum(); }
+
         public void reset() {
-            preyHunted = 0;
-            preyStarved = 0;
-            preyOldAge = 0;
-            predStarved = 0;
+            for (LongAdder counter : deaths) counter.reset();
+            preyBirths.reset();
+            predBirths.reset();
+            captures.reset();
         }
     }
-    private DeathStats stats = new DeathStats();
+    private final LifeEventBus events = new LifeEventBus();
+    private final LineageStore lineage = new LineageStore();
+    private final TraitHistogram traits = new TraitHistogram();
+    private ThreatField threat;
+    private volatile int tick = 0; // world tick, set by the WorldDriver
+    private final DeathStats stats = new DeathStats();
+
+    // agent steps applied through updatePosition, for throughput measurements
+    private final LongAdder positionUpdates = new LongAdder();
+    private final SimulationMetrics metrics = new SimulationMetrics();
+    private final PhaseProfiler profiler;
+    private final double[] resolvedMove = new double[2]; // updatePosition scratch, guarded by this
 
     private static final double COLLISION_DISTANCE = 10.0;
     private static final int FOOD_ENERGY = 35;
 
-    private Environment() {
+    // Independent world with its own agents, terrain, food, stats and parameters
+    public Environment(VisualizerAgent.SimParams params) {
+        this(params, new Random());
+    }
+
+    // Seeded world: terrain and world-level randomness (food, spawns) are reproducible
+    public Environment(VisualizerAgent.SimParams params, long seed) {
+        this(params, new Random(seed));
+    }
+
+    private Environment(VisualizerAgent.SimParams params, Random random) {
+        this.id = worldIds.incrementAndGet();
+        this.params = params;
+        this.random = random;
         agents = new ConcurrentHashMap<>();
         foods = new CopyOnWriteArrayList<>();
-        spatialGrid = new ConcurrentHashMap<>();
-        
+        gridCols = width / GRID_CELL_SIZE + 1;
+        gridRows = height / GRID_CELL_SIZE + 1;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<AgentInfo>[] grid = new List[gridCols * gridRows];
+        for (int i = 0; i < grid.length; i++) grid[i] = new ArrayList<>();
+        spatialGrid = grid;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Food>[] food = new List[grid.length];
+        for (int i = 0; i < food.length; i++) food[i] = new ArrayList<>();
+        foodGrid = food;
+        scent = new FoodScent(width, height);
+        flockCols = width / FLOCK_CELL_SIZE + 1;
+        flockRows = height / FLOCK_CELL_SIZE + 1;
+        int flockCells = flockCols * flockRows;
+        flockSumX = new double[flockCells];
+        flockSumY = new double[flockCells];
+        flockSumVX = new double[flockCells];
+        flockSumVY = new double[flockCells];
+        flockCount = new int[flockCells];
+        profiler = new PhaseProfiler(width, height);
+        threat = new ThreatField(width, height);
+        events.subscribe(stats);
+        events.subscribe(new LifeEventBus.Listener() {
+            public void onBirth(LifeEventBus.Birth birth) { metrics.births.increment(); }
+            public void onDeath(LifeEventBus.Death death) { metrics.deaths.increment(); }
+        });
+
         initTerrain();
+        terrain = new TerrainMap(width, height, rocks, forestTrees, swamps);
     }
 
     private void initTerrain() {
         forestTrees = new ArrayList<>();
         swamps = new ArrayList<>();
         rocks = new ArrayList<>();
-        Random rand = new Random();
+        Random rand = random;
         List<Position> featureCenters = new ArrayList<>();
 
         // generate organic swamps (smaller)
@@ -167,148 +265,341 @@ public class Environment {
         return tree;
     }
 
+    // Default world used by the GUI
     public static synchronized Environment getInstance() {
         if (instance == null) {
-            instance = new Environment();
+            instance = new Environment(new VisualizerAgent.SimParams());
+            instance.metrics.register(instance.id);
         }
         return instance;
     }
 
+    // Agents receive their world as an optional argument; older launch paths fall back to the default world
+    public static Environment fromArguments(Object[] args, int index) {
+        if (args != null && args.length > index && args[index] instanceof Environment) {
+            return (Environment) args[index];
+        }
+        return getInstance();
+    }
+
+    // New lineage entry for an agent being set up: child of the parent id at
+    // args[index], or a founder when there is none. Appended by the agent
+    // itself, so a spawn that fails never leaves an entry behind
+    public int lineageFromArguments(Object[] args, int index, byte species, double speed, double vision) {
+        int parent = args != null && args.length > index && args[index] instanceof Integer ? (Integer) args[index] : LineageStore.NONE;
+        return lineage.append(parent, species, tick, speed, vision);
+    }
+
+    public int getId() { return id; }
+    public Random getRandom() { return random; }
+    public VisualizerAgent.SimParams getParams() { return params; }
+    public long getPositionUpdates() { return positionUpdates.sum(); }
+    public SimulationMetrics getMetrics() { return metrics; }
+    public PhaseProfiler getProfiler() { return profiler; }
+
     // SEASONAL LOGIC
     public synchronized void updateSeason() {
         seasonTick++;
         if (seasonTick >= SEASON_DURATION) {
             seasonTick = 0;
             currentSeason = Season.values()[(currentSeason.ordinal() + 1) % Season.values().length];
-            System.out.println("🍂 Season changed to: " + currentSeason);
+            EventLog.info("🍂 Season changed to: ", currentSeason);
         }
     }
 
     public Season getCurrentSeason() { return currentSeason; }
 
-    // death tracking
-    public synchronized void recordDeath(String type, String cause) {
-        if (type.equals("PREY")) {
-            switch (cause) {
-                case "HUNTED": stats.preyHunted++; break;
-                case "STARVED": stats.preyStarved++; break;
-                case "OLD_AGE": stats.preyOldAge++; break;
-            }
-        } else if (type.equals("PREDATOR")) {
-            if (cause.equals("STARVED")) stats.predStarved++;
-        }
-    }
-    
-    public synchronized DeathStats getStats() { return stats; }
-    public synchronized void resetStats() { stats.reset(); }
-
-    // TERRAIN CHECKS
+    // births, deaths and captures
+    public LifeEventBus getEvents() { return events; }
+    public LineageStore getLineage() { return lineage; }
+    public TraitHistogram getTraits() { return traits; }
+    public ThreatField getThreat() { return threat; }
+    public FoodScent getScent() { return scent; }
+    public int getTick() { return tick; }
+    public void setTick(int tick) { this.tick = tick; }
+    public DeathStats getStats() { return stats; }
+    public void resetStats() { stats.reset(); }
+
+    // TERRAIN CHECKS, one mask read each
     public boolean isInForest(Position pos) {
-        for (Shape tree : forestTrees) {
-            if (tree.contains(pos.getX(), pos.getY())) return true;
-        }
-        return false;
+        return terrain.is(pos.getX(), pos.getY(), TerrainMap.FOREST);
     }
 
     public boolean isInSwamp(Position pos) {
-        for (Shape swamp : swamps) {
-            if (swamp.contains(pos.getX(), pos.getY())) return true;
-        }
-        return false;
+        return terrain.is(pos.getX(), pos.getY(), TerrainMap.SWAMP);
     }
 
     public boolean isObstacle(double x, double y) {
-        for (Shape rock : rocks) {
-            if (rock.contains(x, y)) return true;
-        }
-        return false;
+        return terrain.isRock(x, y);
     }
 
+    public TerrainMap getTerrain() { return terrain; }
+
     public List<Shape> getTrees() { return forestTrees; }
     public List<Shape> getSwamps() { return swamps; }
     public List<Shape> getRocks() { return rocks; }
 
     // Helper to get grid key
-    private String getGridKey(Position pos) {
-        int x = (int) (pos.getX() / GRID_CELL_SIZE);
-        int y = (int) (pos.getY() / GRID_CELL_SIZE);
-        return x + "," + y;
-    }
-
-    public synchronized void registerAgent(AID aid, String type, Position position, int energy, double speed, double visionRange) {
-        int attempts = 0;
-        while(isObstacle(position.getX(), position.getY()) && attempts < 10) {
-            position.setX(Math.random() * width);
-            position.setY(Math.random() * height);
-            attempts++;
+    private int gridCol(double x) {
+        return Math.max(0, Math.min(gridCols - 1, (int) (x / GRID_CELL_SIZE)));
+    }
+
+    private int gridRow(double y) {
+        return Math.max(0, Math.min(gridRows - 1, (int) (y / GRID_CELL_SIZE)));
+    }
+
+    private int gridCell(Position pos) {
+        return gridRow(pos.getY()) * gridCols + gridCol(pos.getX());
+    }
+
+    private int flockCell(Position pos) {
+        int col = Math.max(0, Math.min(flockCols - 1, (int) (pos.getX() / FLOCK_CELL_SIZE)));
+        int row = Math.max(0, Math.min(flockRows - 1, (int) (pos.getY() / FLOCK_CELL_SIZE)));
+        return row * flockCols + col;
+    }
+
+    // The hot paths below time how long they wait for the world's monitor
+    public void registerAgent(AID aid, String type, Position position, int energy, double speed, double visionRange) {
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            int attempts = 0;
+            while(isObstacle(position.getX(), position.getY()) && attempts < 10) {
+                position.setX(Math.random() * width);
+                position.setY(Math.random() * height);
+                attempts++;
+            }
+            // own copy: the agent keeps mutating the Position it passed in
+            AgentInfo info = new AgentInfo(aid, type, new Position(position.getX(), position.getY()), energy, speed, visionRange);
+            AgentInfo previous = agents.put(aid, info);
+            if (previous != null) {
+                traits.remove(previous);
+                spatialGrid[previous.gridCell].remove(previous);
+                flockUpdate(previous, -1);
+            }
+            traits.add(info);
+            info.gridCell = gridCell(info.getPosition());
+            spatialGrid[info.gridCell].add(info);
+            info.flockCell = flockCell(info.getPosition());
+            flockUpdate(info, 1);
+            if (LOG_REGISTERED.next()) LOG_REGISTERED.log("✓ Registered: ", info.toString());
         }
-        AgentInfo info = new AgentInfo(aid, type, position, energy, speed, visionRange);
-        agents.put(aid, info);
-        String key = getGridKey(position);
-        spatialGrid.computeIfAbsent(key, k -> new ArrayList<>()).add(info);
-        System.out.println("✓ Registered: " + info);
-    }
-
-    public synchronized void unregisterAgent(AID aid) {
-        AgentInfo removed = agents.remove(aid);
-        if (removed != null) {
-            String key = getGridKey(removed.getPosition());
-            List<AgentInfo> cell = spatialGrid.get(key);
-            if (cell != null) {
-                cell.remove(removed);
-                if (cell.isEmpty()) spatialGrid.remove(key);
+    }
+
+    public void unregisterAgent(AID aid) {
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            AgentInfo removed = agents.remove(aid);
+            if (removed != null) {
+                traits.remove(removed);
+                spatialGrid[removed.gridCell].remove(removed);
+                flockUpdate(removed, -1);
+                if (LOG_REMOVED.next()) LOG_REMOVED.log("✗ Removed: ", removed.toString());
             }
-            System.out.println("✗ Removed: " + removed);
         }
     }
 
-    public synchronized void updatePosition(AID aid, Position newPosition, int energy) {
-        AgentInfo info = agents.get(aid);
-        if (info != null) {
-            if (isObstacle(newPosition.getX(), newPosition.getY())) return; 
-            info.setEnergy(energy);
-            Position oldPos = info.getPosition();
-            String oldKey = getGridKey(oldPos);
-            double x = Math.max(0, Math.min(width, newPosition.getX()));
-            double y = Math.max(0, Math.min(height, newPosition.getY()));
-            Position clampedPos = new Position(x, y);
-            info.setPosition(clampedPos);
-            String newKey = getGridKey(clampedPos);
-            if (!oldKey.equals(newKey)) {
-                List<AgentInfo> oldCell = spatialGrid.get(oldKey);
-                if (oldCell != null) {
-                    oldCell.remove(info);
-                    if (oldCell.isEmpty()) spatialGrid.remove(oldKey);
+    // Moves into a rock are slid along its face; the position the world settles
+    // on is written back into newPosition so the agent follows it
+    public void updatePosition(AID aid, Position newPosition, int energy) {
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            AgentInfo info = agents.get(aid);
+            if (info != null) {
+                positionUpdates.increment();
+                info.setEnergy(energy);
+                double x = Math.max(0, Math.min(width, newPosition.getX()));
+                double y = Math.max(0, Math.min(height, newPosition.getY()));
+                Position oldPos = info.getPosition();
+                if (terrain.isRock(x, y)) {
+                    terrain.resolveMove(oldPos.getX(), oldPos.getY(), x, y, info.getVelocityX(), info.getVelocityY(), resolvedMove);
+                    x = Math.max(0, Math.min(width, resolvedMove[0]));
+                    y = Math.max(0, Math.min(height, resolvedMove[1]));
+                    newPosition.setX(x);
+                    newPosition.setY(y);
+                }
+                Position clampedPos = new Position(x, y);
+                flockUpdate(info, -1);
+                info.setVelocity(x - oldPos.getX(), y - oldPos.getY());
+                info.setPosition(clampedPos);
+                int cell = gridCell(clampedPos);
+                if (cell != info.gridCell) {
+                    spatialGrid[info.gridCell].remove(info);
+                    spatialGrid[cell].add(info);
+                    info.gridCell = cell;
                 }
-                spatialGrid.computeIfAbsent(newKey, k -> new ArrayList<>()).add(info);
+                info.flockCell = flockCell(clampedPos);
+                flockUpdate(info, 1);
             }
         }
     }
 
-    public synchronized List<AgentInfo> getNearbyAgents(AID requester, Position position, double radius) {
-        List<AgentInfo> nearby = new ArrayList<>();
-        int cellX = (int) (position.getX() / GRID_CELL_SIZE);
-        int cellY = (int) (position.getY() / GRID_CELL_SIZE);
-        int searchRadius = (int) Math.ceil(radius / GRID_CELL_SIZE);
-        for (int dx = -searchRadius; dx <= searchRadius; dx++) {
-            for (int dy = -searchRadius; dy <= searchRadius; dy++) {
-                String key = (cellX + dx) + "," + (cellY + dy);
-                List<AgentInfo> cellAgents = spatialGrid.get(key);
-                if (cellAgents != null) {
-                    for (AgentInfo info : cellAgents) {
-                        if (!info.getAID().equals(requester)) {
-                            if (info.getPosition().distance(position) <= radius) {
-                                nearby.add(info);
+    public List<AgentInfo> getNearbyAgents(AID requester, Position position, double radius) {
+        SimulationEvents.Perception event = new SimulationEvents.Perception();
+        event.begin();
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            List<AgentInfo> nearby = new ArrayList<>();
+            int minCol = gridCol(position.getX() - radius), maxCol = gridCol(position.getX() + radius);
+            int minRow = gridRow(position.getY() - radius), maxRow = gridRow(position.getY() + radius);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    for (AgentInfo info : spatialGrid[row * gridCols + col]) {
+                        if (info.getPosition().distance(position) <= radius && !info.getAID().equals(requester)) {
+                            nearby.add(info);
+                        }
+                    }
+                }
+            }
+            metrics.recordNeighborQuery(nearby.size());
+            commitPerception(event, radius, (maxCol - minCol + 1) * (maxRow - minRow + 1), nearby.size());
+            return nearby;
+        }
+    }
+
+    // Adds (sign 1) or removes (sign -1) a prey's position and velocity in its cell's flock sums
+    private void flockUpdate(AgentInfo info, int sign) {
+        if (!info.isPrey()) return;
+        int c = info.flockCell;
+        flockCount[c] += sign;
+        if (flockCount[c] == 0) {
+            // empty cell: reset exactly, so rounding never accumulates
+            flockSumX[c] = flockSumY[c] = flockSumVX[c] = flockSumVY[c] = 0;
+            return;
+        }
+        flockSumX[c] += sign * info.getPosition().getX();
+        flockSumY[c] += sign * info.getPosition().getY();
+        flockSumVX[c] += sign * info.getVelocityX();
+        flockSumVY[c] += sign * info.getVelocityY();
+    }
+
+    // Prey herd around a point, read from the per-cell sums instead of the agents
+    public static class Flock {
+        public double count;                  // prey in the disk, edge cells by their overlap
+        public double centroidX, centroidY;   // mean position
+        public double headingX, headingY;     // mean velocity
+    }
+
+    // Share of a flock cell inside the disk, from the distance between the
+    // disk centre and the cell centre: a linear ramp one cell wide across the
+    // rim, so the herd does not jump or lean as cell boundaries are crossed
+    private static double flockCoverage(double distance, double radius) {
+        return Math.max(0, Math.min(1, (radius - distance) / FLOCK_CELL_SIZE + 0.5));
+    }
+
+    // Sums the flock cells overlapping the disk of the given radius around
+    // position, each weighted by its coverage, minus the requester itself:
+    // O(cells), whatever the density
+    public Flock flockAround(AID requester, Position position, double radius) {
+        Flock flock = new Flock();
+        double sx = 0, sy = 0, svx = 0, svy = 0;
+        double px = position.getX(), py = position.getY();
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            double reach = radius + FLOCK_CELL_SIZE;
+            int minCol = Math.max(0, (int) ((px - reach) / FLOCK_CELL_SIZE)), maxCol = Math.min(flockCols - 1, (int) ((px + reach) / FLOCK_CELL_SIZE));
+            int minRow = Math.max(0, (int) ((py - reach) / FLOCK_CELL_SIZE)), maxRow = Math.min(flockRows - 1, (int) ((py + reach) / FLOCK_CELL_SIZE));
+            for (int row = minRow; row <= maxRow; row++) {
+                double dy = (row + 0.5) * FLOCK_CELL_SIZE - py;
+                for (int col = minCol; col <= maxCol; col++) {
+                    int c = row * flockCols + col;
+                    if (flockCount[c] == 0) continue;
+                    double dx = (col + 0.5) * FLOCK_CELL_SIZE - px;
+                    double w = flockCoverage(Math.sqrt(dx * dx + dy * dy), radius);
+                    if (w == 0) continue;
+                    flock.count += w * flockCount[c];
+                    sx += w * flockSumX[c];
+                    sy += w * flockSumY[c];
+                    svx += w * flockSumVX[c];
+                    svy += w * flockSumVY[c];
+                }
+            }
+            AgentInfo self = requester != null ? agents.get(requester) : null;
+            if (self != null && self.isPrey()) {
+                int c = self.flockCell;
+                double dx = (c % flockCols + 0.5) * FLOCK_CELL_SIZE - px;
+                double dy = (c / flockCols + 0.5) * FLOCK_CELL_SIZE - py;
+                double w = flockCoverage(Math.sqrt(dx * dx + dy * dy), radius);
+                flock.count -= w;
+                sx -= w * self.getPosition().getX();
+                sy -= w * self.getPosition().getY();
+                svx -= w * self.getVelocityX();
+                svy -= w * self.getVelocityY();
+            }
+        }
+        if (flock.count > 1e-9) {
+            flock.centroidX = sx / flock.count;
+            flock.centroidY = sy / flock.count;
+            flock.headingX = svx / flock.count;
+            flock.headingY = svy / flock.count;
+        } else {
+            flock.count = 0;
+        }
+        return flock;
+    }
+
+    // Everything around position in one scan: neighbours by species, nearest
+    // of each, centroids. Prey standing in a forest are only seen within
+    // radius * forestSight (1.0: no concealment, no forest checks).
+    public Perception perceive(AID requester, Position position, double radius, double forestSight) {
+        SimulationEvents.Perception event = new SimulationEvents.Perception();
+        event.begin();
+        Perception seen = new Perception();
+        double concealed = radius * forestSight;
+        List<AgentInfo> maybeHidden = null; // far prey, forest-checked outside the lock
+        int cells;
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            int minCol = gridCol(position.getX() - radius), maxCol = gridCol(position.getX() + radius);
+            int minRow = gridRow(position.getY() - radius), maxRow = gridRow(position.getY() + radius);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    for (AgentInfo info : spatialGrid[row * gridCols + col]) {
+                        double d = info.getPosition().distance(position);
+                        if (d > radius || info.getAID().equals(requester)) continue;
+                        if (info.isPrey()) {
+                            if (d >= concealed && forestSight < 1.0) {
+                                if (maybeHidden == null) maybeHidden = new ArrayList<>();
+                                maybeHidden.add(info);
+                            } else {
+                                seen.addPrey(info, d);
                             }
+                        } else {
+                            seen.addPredator(info, d);
                         }
                     }
                 }
             }
+            cells = (maxCol - minCol + 1) * (maxRow - minRow + 1);
+        }
+        if (maybeHidden != null) {
+            for (AgentInfo info : maybeHidden) {
+                Position p = info.getPosition();
+                if (!isInForest(p)) seen.addPrey(info, p.distance(position));
+            }
         }
-        return nearby;
+        seen.finish();
+        metrics.recordNeighborQuery(seen.size());
+        commitPerception(event, radius, cells, seen.size());
+        return seen;
     }
 
-    public synchronized AgentInfo checkPreyCollision(Position predatorPos) {
+    private void commitPerception(SimulationEvents.Perception event, double radius, int cells, int results) {
+        if (event.shouldCommit()) {
+            event.world = id;
+            event.radius = radius;
+            event.cells = cells;
+            event.results = results;
+            event.commit();
+        }
+    }
+
+    public AgentInfo checkPreyCollision(Position predatorPos) {
         List<AgentInfo> nearby = getNearbyAgents(null, predatorPos, COLLISION_DISTANCE);
         for (AgentInfo info : nearby) {
             if (info.isPrey()) return info;
@@ -331,6 +622,11 @@ public class Environment {
         return new HashMap<>(agents);
     }
 
+    // Live read-only view for one-pass scans, no copy
+    public Collection<AgentInfo> getAgentsView() {
+        return Collections.unmodifiableCollection(agents.values());
+    }
+
     public int getPreyCount() {
         return (int) agents.values().stream().filter(AgentInfo::isPrey).count();
     }
@@ -340,36 +636,62 @@ public class Environment {
     }
 
     // FOOD MANAGEMENT
+    // Food is kept in three places in step: the list, its grid cell and the scent field
     public synchronized void spawnFood(Position position) {
         if (!isObstacle(position.getX(), position.getY())) {
-            foods.add(new Food(position, FOOD_ENERGY));
+            Food food = new Food(position, FOOD_ENERGY);
+            foods.add(food);
+            foodGrid[gridCell(position)].add(food);
+            scent.add(position);
         }
     }
 
-    public synchronized Food findNearestFood(Position position, double radius) {
-        Food nearest = null;
-        double minDist = radius;
-        for (Food food : foods) {
-            if (!food.isConsumed()) {
-                double dist = position.distance(food.getPosition());
-                if (dist < minDist) {
-                    minDist = dist;
-                    nearest = food;
+    // Scans only the grid cells overlapping the radius
+    public Food findNearestFood(Position position, double radius) {
+        long requested = System.nanoTime();
+        synchronized (this) {
+            metrics.recordLockWait(requested);
+            Food nearest = null;
+            double minDist = radius;
+            int scanned = 0;
+            int minCol = gridCol(position.getX() - radius), maxCol = gridCol(position.getX() + radius);
+            int minRow = gridRow(position.getY() - radius), maxRow = gridRow(position.getY() + radius);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    List<Food> cell = foodGrid[row * gridCols + col];
+                    scanned += cell.size();
+                    for (Food food : cell) {
+                        double dist = position.distance(food.getPosition());
+                        if (dist < minDist) {
+                            minDist = dist;
+                            nearest = food;
+                        }
+                    }
                 }
             }
+            metrics.foodScanLength.record(scanned);
+            return nearest;
         }
-        return nearest;
     }
 
     public synchronized boolean consumeFood(Food food) {
         if (food != null && !food.isConsumed()) {
             food.consume();
             foods.remove(food);
+            foodGrid[gridCell(food.getPosition())].remove(food);
+            scent.remove(food.getPosition());
             return true;
         }
         return false;
     }
 
+    public synchronized void clearFood() {
+        for (Food food : foods) food.consume();
+        foods.clear();
+        for (List<Food> cell : foodGrid) cell.clear();
+        scent.clear();
+    }
+
     public synchronized List<Food> getAllFoods() {
         return new ArrayList<>(foods);
     }
@@ -0,0 +1,164 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Console log for the agent threads. log() never blocks and never formats
+// more than the caller did: it claims a slot in a fixed lock-free ring
+// (multi-producer, bounded, slot sequence numbers) and returns; a daemon
+// thread drains the ring in batches and writes them with one print per
+// batch. When the ring is full the message is dropped and counted, and the
+// drainer reports the losses instead of slowing the simulation down.
+//
+// Configuration (system properties):
+//   log.level=DEBUG|INFO|WARN|OFF     minimum level, default INFO
+//   log.sample.<name>=N               keep one message in N for that sampler
+public class EventLog {
+
+    public enum Level { DEBUG, INFO, WARN, OFF }
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH = 256;
+
+    private static final Level threshold = parseLevel(System.getProperty("log.level"));
+
+    // slot i is free for position p when sequences[i] == p and readable when it is p + 1
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final Level[] levels = new Level[CAPACITY];
+    private static final String[] texts = new String[CAPACITY];
+    private static final Object[] details = new Object[CAPACITY];
+    private static final AtomicLong tail = new AtomicLong();
+    private static long head = 0; // drainer thread only
+    private static final LongAdder dropped = new LongAdder();
+    private static volatile Thread drainer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) sequences.set(i, i);
+    }
+
+    // Keeps one call in N; N comes from log.sample.<name>, else the default
+    public static class Sampler {
+        private final Level level;
+        private final int every;
+        private final AtomicLong calls = new AtomicLong();
+
+        Sampler(String name, Level level, int defaultEvery) {
+            this.level = level;
+            this.every = Math.max(1, Integer.getInteger("log.sample." + name, defaultEvery));
+        }
+
+        // True when this call should be logged; check it before building the message
+        public boolean next() {
+            if (!isEnabled(level)) return false;
+            return every == 1 || calls.getAndIncrement() % every == 0;
+        }
+
+        public void log(String text, Object detail) {
+            EventLog.log(level, text, detail);
+        }
+    }
+
+    public static Sampler sampler(String name, Level level, int defaultEvery) {
+        return new Sampler(name, level, defaultEvery);
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level != Level.OFF && level.ordinal() >= threshold.ordinal();
+    }
+
+    public static void info(String text) { log(Level.INFO, text, null); }
+    public static void info(String text, Object detail) { log(Level.INFO, text, detail); }
+    public static void warn(String text) { log(Level.WARN, text, null); }
+
+    // The detail is appended to the text by the drainer, so pass immutable values
+    public static void log(Level level, String text, Object detail) {
+        if (!isEnabled(level)) return;
+        if (drainer == null) startDrainer();
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & MASK);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment(); // full: the drainer is behind
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+        int index = (int) (pos & MASK);
+        levels[index] = level;
+        texts[index] = text;
+        details[index] = detail;
+        sequences.set(index, pos + 1); // publish
+    }
+
+    private static synchronized void startDrainer() {
+        if (drainer != null) return;
+        Thread thread = new Thread(EventLog::drainLoop, "EventLog-drainer");
+        thread.setDaemon(true);
+        thread.start();
+        java.lang.Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "EventLog-flush"));
+        drainer = thread;
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            if (drain() == 0) LockSupport.parkNanos(2_000_000);
+        }
+    }
+
+    // Writes everything published so far; returns the number of messages written
+    private static synchronized int drain() {
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        int written = 0;
+        while (true) {
+            int index = (int) (head & MASK);
+            if (sequences.get(index) != head + 1) break;
+            StringBuilder target = levels[index] == Level.WARN ? err : out;
+            target.append(texts[index]);
+            if (details[index] != null) target.append(details[index]);
+            target.append('\n');
+            levels[index] = null;
+            texts[index] = null;
+            details[index] = null;
+            sequences.set(index, head + CAPACITY); // free for the next lap
+            head++;
+            if (++written % BATCH == 0) {
+                write(System.out, out);
+                write(System.err, err);
+            }
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) err.append("… ").append(lost).append(" log messages dropped\n");
+        write(System.out, out);
+        write(System.err, err);
+        return written;
+    }
+
+    private static void write(PrintStream stream, StringBuilder text) {
+        if (text.length() == 0) return;
+        stream.print(text);
+        stream.flush();
+        text.setLength(0);
+    }
+
+    // Blocks until the messages logged so far are written (e.g. at shutdown)
+    public static void flush() {
+        drain();
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) return Level.INFO;
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
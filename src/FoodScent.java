@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+// Scent of the food on the map: every item adds a precomputed exp(-d / FALLOFF)
+// kernel (cut off at REACH), roughly the steady state of a scent diffusing
+// and evaporating around it. Kept incrementally by the Environment: stamped
+// when food spawns, unstamped when it is eaten, so neither side depends on
+// how much food there is. Weights are fixed-point ints, so removing an item
+// subtracts exactly what adding it added and the field never drifts; int
+// cells are also read safely without the world's lock.
+public class FoodScent {
+
+    public static final int CELL_SIZE = 10;
+    private static final double FALLOFF = 40.0;
+    private static final double REACH = 160.0;
+    private static final double SCALE = 1 << 16; // one item, at distance 0
+
+    private final int cols, rows;
+    private final int kernelRadius;
+    private final int[] kernel; // (2r+1)^2 weights by cell offset
+    private final int[] field;  // written under the world's lock
+
+    public FoodScent(int width, int height) {
+        cols = width / CELL_SIZE + 1;
+        rows = height / CELL_SIZE + 1;
+        kernelRadius = (int) Math.ceil(REACH / CELL_SIZE);
+        int side = 2 * kernelRadius + 1;
+        kernel = new int[side * side];
+        for (int dy = -kernelRadius; dy <= kernelRadius; dy++) {
+            for (int dx = -kernelRadius; dx <= kernelRadius; dx++) {
+                double d = Math.hypot(dx, dy) * CELL_SIZE;
+                kernel[(dy + kernelRadius) * side + dx + kernelRadius] = d > REACH ? 0 : (int) Math.round(SCALE * Math.exp(-d / FALLOFF));
+            }
+        }
+        field = new int[cols * rows];
+    }
+
+    // Scent of a single item seen from distance away, in sample() units
+    public static double levelAt(double distance) {
+        return distance > REACH ? 0 : Math.exp(-distance / FALLOFF);
+    }
+
+    public void add(Position position) { stamp(position, 1); }
+    public void remove(Position position) { stamp(position, -1); }
+
+    public void clear() {
+        Arrays.fill(field, 0);
+    }
+
+    private void stamp(Position position, int sign) {
+        int cx = Math.max(0, Math.min(cols - 1, (int) (position.getX() / CELL_SIZE)));
+        int cy = Math.max(0, Math.min(rows - 1, (int) (position.getY() / CELL_SIZE)));
+        int side = 2 * kernelRadius + 1;
+        int y0 = Math.max(0, cy - kernelRadius), y1 = Math.min(rows - 1, cy + kernelRadius);
+        int x0 = Math.max(0, cx - kernelRadius), x1 = Math.min(cols - 1, cx + kernelRadius);
+        for (int y = y0; y <= y1; y++) {
+            int k = (y - cy + kernelRadius) * side - cx + kernelRadius;
+            int row = y * cols;
+            for (int x = x0; x <= x1; x++) field[row + x] += sign * kernel[k + x];
+        }
+    }
+
+    // Bilinear scent at a point (cell values sit at cell centres); 1.0 = on top of one item
+    public double sample(double x, double y) {
+        double gx = Math.max(0, Math.min(cols - 1, x / CELL_SIZE - 0.5));
+        double gy = Math.max(0, Math.min(rows - 1, y / CELL_SIZE - 0.5));
+        int x0 = (int) gx, y0 = (int) gy;
+        int x1 = Math.min(cols - 1, x0 + 1), y1 = Math.min(rows - 1, y0 + 1);
+        double tx = gx - x0, ty = gy - y0;
+        double top = field[y0 * cols + x0] * (1 - tx) + field[y0 * cols + x1] * tx;
+        double bottom = field[y1 * cols + x0] * (1 - tx) + field[y1 * cols + x1] * tx;
+        return (top * (1 - ty) + bottom * ty) / SCALE;
+    }
+
+    // Uphill direction at (x, y) by central differences; out = {dx, dy}
+    public void gradient(double x, double y, double[] out) {
+        double h = CELL_SIZE;
+        out[0] = (sample(x + h, y) - sample(x - h, y)) / (2 * h);
+        out[1] = (sample(x, y + h) - sample(x, y - h)) / (2 * h);
+    }
+}
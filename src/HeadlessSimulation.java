@@ -0,0 +1,318 @@
+import jade.core.Agent;
+import jade.core.Profile;
+import jade.core.ProfileImpl;
+import jade.core.Runtime;
+import jade.core.behaviours.TickerBehaviour;
+import jade.wrapper.AgentContainer;
+import jade.wrapper.StaleProxyException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Headless worlds without the GUI. Every world gets its own Environment,
+// SimParams and agent container on a JADE platform shared by the whole JVM,
+// so many runs can execute side by side in one warmed-up process.
+// main() runs a single world and prints one "RESULT {json}" line; arguments are
+// key=value pairs: prey, predators, ticks, sampleEvery, stop (see
+// StoppingCriterion.parse), record (TimeSeriesRecorder directory), lineage
+// (LineageStore CSV), plus any SimParams field (e.g. PREY_REPRO_COST=60).
+public class HeadlessSimulation {
+
+    public static final String RESULT_PREFIX = "RESULT ";
+
+    private static AgentContainer mainContainer;
+    private static int mainPort;
+
+    public interface SampleListener {
+        void onSample(int index, int prey, int predators);
+    }
+
+    // Called on the driver thread after every world tick
+    public interface TickListener {
+        void onTick(int tick, long startNanos, long endNanos);
+    }
+
+    public static class RunConfig {
+        public int prey = 15;
+        public int predators = 8;
+        public int ticks = 3000;
+        public int sampleEvery = 10;
+        public Long seed = null;              // null: unseeded world
+        public boolean recordSeries = true;   // keep the sampled series in the Result
+        public SampleListener listener = null;
+        public String stopWhen = null;        // StoppingCriterion spec, e.g. "extinction,converged"
+        public TickListener tickListener = null;
+        public String recordTo = null;        // directory for a TimeSeriesRecorder, null: off
+        public String lineageTo = null;       // CSV file for the LineageStore at the end, null: off
+
+        public RunConfig copy() {
+            RunConfig c = new RunConfig();
+            c.prey = prey;
+            c.predators = predators;
+            c.ticks = ticks;
+            c.sampleEvery = sampleEvery;
+            c.seed = seed;
+            c.recordSeries = recordSeries;
+            c.listener = listener;
+            c.stopWhen = stopWhen;
+            c.tickListener = tickListener;
+            c.recordTo = recordTo;
+            c.lineageTo = lineageTo;
+            return c;
+        }
+    }
+
+    public static class Result {
+        public int ticks;
+        public String stopReason = "ticks";
+        public int preyExtinctTick = -1;
+        public int predatorExtinctTick = -1;
+        public long preyHunted, preyStarved, preyOldAge, predStarved;
+        public long wallMillis;
+        public long positionUpdates;
+        private int[] preySeries = new int[64];
+        private int[] predatorSeries = new int[64];
+        private int samples = 0;
+
+        public void addSample(int prey, int predators) {
+            if (samples == preySeries.length) {
+                preySeries = Arrays.copyOf(preySeries, samples * 2);
+                predatorSeries = Arrays.copyOf(predatorSeries, samples * 2);
+            }
+            preySeries[samples] = prey;
+            predatorSeries[samples] = predators;
+            samples++;
+        }
+
+        public int[] getPreySeries() { return Arrays.copyOf(preySeries, samples); }
+        public int[] getPredatorSeries() { return Arrays.copyOf(predatorSeries, samples); }
+
+        public String toJson() {
+            StringBuilder sb = new StringBuilder(64 + samples * 8);
+            sb.append(String.format(Locale.ROOT,
+                    "{\"ticks\":%d,\"stopReason\":\"%s\",\"preyExtinctTick\":%d,\"predatorExtinctTick\":%d,\"wallMillis\":%d,\"positionUpdates\":%d," +
+                    "\"deaths\":{\"preyHunted\":%d,\"preyStarved\":%d,\"preyOldAge\":%d,\"predStarved\":%d}",
+                    ticks, stopReason, preyExtinctTick, predatorExtinctTick, wallMillis, positionUpdates,
+                    preyHunted, preyStarved, preyOldAge, predStarved));
+            appendSeries(sb, "prey", preySeries);
+            appendSeries(sb, "predators", predatorSeries);
+            return sb.append('}').toString();
+        }
+
+        private void appendSeries(StringBuilder sb, String name, int[] series) {
+            sb.append(",\"").append(name).append("\":[");
+            for (int i = 0; i < samples; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(series[i]);
+            }
+            sb.append(']');
+        }
+    }
+
+    // Drives the world tick by tick and records the run
+    public static class DriverAgent extends Agent {
+        private final Environment environment;
+        private final RunConfig config;
+        private final CompletableFuture<Result> done;
+        private final Result result = new Result();
+        private WorldDriver driver;
+        private List<StoppingCriterion> criteria;
+        private TimeSeriesRecorder recorder;
+        private long startMillis;
+        // agents register themselves in their own setup(), after spawning returns:
+        // a species only counts as extinct once it has been seen in the world
+        private boolean preyArrived, predatorsArrived;
+
+        public DriverAgent(Environment environment, RunConfig config, CompletableFuture<Result> done) {
+            this.environment = environment;
+            this.config = config;
+            this.done = done;
+        }
+
+        protected void setup() {
+            driver = new WorldDriver(environment, getContainerController());
+            criteria = StoppingCriterion.parse(config.stopWhen);
+            if (StoppingCriterion.hasExtinction(criteria)) environment.getParams().IMMIGRATION_ENABLED = false;
+            if (config.recordTo != null) {
+                try {
+                    recorder = new TimeSeriesRecorder(java.nio.file.Paths.get(config.recordTo));
+                } catch (IOException e) {
+                    System.err.println("Cannot record to " + config.recordTo + ": " + e.getMessage());
+                }
+            }
+            startMillis = System.currentTimeMillis();
+            driver.spawnInitialPopulation(config.prey, config.predators);
+
+            addBehaviour(new TickerBehaviour(this, environment.getParams().scaledDelay(33)) {
+                protected void onTick() {
+                    if (done.isDone()) return;
+                    try {
+                        advance();
+                    } catch (Throwable t) {
+                        // JADE would take the agent down and leave the future pending forever
+                        stop();
+                        if (recorder != null) recorder.close();
+                        done.completeExceptionally(t);
+                    }
+                }
+
+                private void advance() {
+                    long tickStart = System.nanoTime();
+                    driver.tick();
+                    int tick = driver.getTickCount();
+                    if (config.tickListener != null) config.tickListener.onTick(tick, tickStart, System.nanoTime());
+                    if (recorder != null) {
+                        try {
+                            recorder.record(environment, tick);
+                        } catch (IOException e) {
+                            System.err.println("Recording stopped: " + e.getMessage());
+                            recorder.close();
+                            recorder = null;
+                        }
+                    }
+                    int prey = environment.getPreyCount();
+                    int predators = environment.getPredatorCount();
+
+                    preyArrived |= prey > 0 || config.prey == 0;
+                    predatorsArrived |= predators > 0 || config.predators == 0;
+                    if (preyArrived && prey == 0 && result.preyExtinctTick < 0) result.preyExtinctTick = tick;
+                    if (predatorsArrived && predators == 0 && result.predatorExtinctTick < 0) result.predatorExtinctTick = tick;
+                    String reason = tick >= config.ticks ? "ticks" : null;
+                    if (tick % config.sampleEvery == 0) {
+                        if (config.recordSeries) result.addSample(prey, predators);
+                        if (config.listener != null) config.listener.onSample(tick / config.sampleEvery - 1, prey, predators);
+                        long elapsed = System.currentTimeMillis() - startMillis;
+                        for (StoppingCriterion criterion : criteria) {
+                            // until both species have shown up, counts of 0 mean nothing; only the wall budget applies
+                            if (!(preyArrived && predatorsArrived) && !(criterion instanceof StoppingCriterion.WallTimeBudget)) continue;
+                            String r = criterion.check(tick, prey, predators, elapsed);
+                            if (r != null && reason == null) reason = r;
+                        }
+                    }
+
+                    if (reason != null) {
+                        result.stopReason = reason;
+                        stop();
+                        finish();
+                    }
+                }
+            });
+        }
+
+        protected void takeDown() {
+            if (!done.isDone()) {
+                if (recorder != null) recorder.close();
+                done.completeExceptionally(new IllegalStateException("World " + environment.getId() + " driver stopped before the run ended"));
+            }
+        }
+
+        private void finish() {
+            Environment.DeathStats stats = environment.getStats();
+            result.ticks = driver.getTickCount();
+            result.preyHunted = stats.getPreyHunted();
+            result.preyStarved = stats.getPreyStarved();
+            result.preyOldAge = stats.getPreyOldAge();
+            result.predStarved = stats.getPredStarved();
+            result.wallMillis = System.currentTimeMillis() - startMillis;
+            result.positionUpdates = environment.getPositionUpdates();
+            if (recorder != null) recorder.close();
+            if (config.lineageTo != null) {
+                try (java.io.Writer writer = new java.io.BufferedWriter(new java.io.FileWriter(config.lineageTo))) {
+                    environment.getLineage().writeCsv(writer);
+                } catch (IOException e) {
+                    System.err.println("Cannot write lineage to " + config.lineageTo + ": " + e.getMessage());
+                }
+            }
+            done.complete(result);
+        }
+    }
+
+    // Lets headless worlds join a platform already started in this JVM (e.g. by the GUI launcher)
+    public static synchronized void usePlatform(AgentContainer container, int port) {
+        mainContainer = container;
+        mainPort = port;
+    }
+
+    // Shared platform for all headless worlds of this JVM
+    private static synchronized void ensurePlatform() throws IOException {
+        if (mainContainer != null) return;
+        mainPort = freePort();
+        Profile profile = new ProfileImpl();
+        profile.setParameter(Profile.MAIN_HOST, "localhost");
+        profile.setParameter(Profile.GUI, "false");
+        profile.setParameter(Profile.LOCAL_PORT, String.valueOf(mainPort));
+        mainContainer = Runtime.instance().createMainContainer(profile);
+    }
+
+    // Starts a new world; the future completes once the run has ended and its container is gone
+    public static CompletableFuture<Result> start(VisualizerAgent.SimParams params, RunConfig config) {
+        try {
+            ensurePlatform();
+            Environment environment = config.seed != null ? new Environment(params, config.seed) : new Environment(params);
+            environment.getMetrics().register(environment.getId());
+
+            Profile profile = new ProfileImpl(false);
+            profile.setParameter(Profile.MAIN_HOST, "localhost");
+            profile.setParameter(Profile.MAIN_PORT, String.valueOf(mainPort));
+            profile.setParameter(Profile.LOCAL_PORT, String.valueOf(freePort()));
+            profile.setParameter(Profile.CONTAINER_NAME, "World-" + environment.getId());
+            AgentContainer container = Runtime.instance().createAgentContainer(profile);
+
+            CompletableFuture<Result> done = new CompletableFuture<>();
+            container.acceptNewAgent("Driver_w" + environment.getId(), new DriverAgent(environment, config, done)).start();
+
+            // the container is killed off the driver's own thread, which it would otherwise wait for;
+            // a failed run is torn down the same way and its failure passed on
+            return done.handleAsync((result, failure) -> {
+                try {
+                    container.kill();
+                } catch (StaleProxyException e) {
+                    System.err.println("Cannot stop world " + environment.getId() + ": " + e.getMessage());
+                }
+                environment.getMetrics().unregister();
+                if (failure != null) throw new CompletionException(failure);
+                return result;
+            });
+        } catch (IOException | StaleProxyException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public static Result run(VisualizerAgent.SimParams params, RunConfig config) {
+        return start(params, config).join();
+    }
+
+    public static void main(String[] args) {
+        RunConfig config = new RunConfig();
+        VisualizerAgent.SimParams params = new VisualizerAgent.SimParams();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "prey": config.prey = Integer.parseInt(kv[1]); break;
+                case "predators": config.predators = Integer.parseInt(kv[1]); break;
+                case "ticks": config.ticks = Integer.parseInt(kv[1]); break;
+                case "sampleEvery": config.sampleEvery = Math.max(1, Integer.parseInt(kv[1])); break;
+                case "stop": config.stopWhen = kv[1]; break;
+                case "record": config.recordTo = kv[1]; break;
+                case "lineage": config.lineageTo = kv[1]; break;
+                default: params.set(kv[0], kv[1]);
+            }
+        }
+
+        Result result = run(params, config);
+        System.out.println(RESULT_PREFIX + result.toJson());
+        System.out.flush();
+        System.exit(0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
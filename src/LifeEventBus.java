@@ -0,0 +1,78 @@
+import jade.core.AID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Births, deaths and captures of one world, published by the agent threads
+// as typed events. Publishing takes no lock: listeners live in a
+// copy-on-write array that is only copied when someone (un)subscribes, and
+// each listener runs on the publishing agent's thread. Listeners must
+// therefore be cheap and non-blocking (striped counters, lock-free queues);
+// anything slower should hand the event off to its own thread.
+public class LifeEventBus {
+
+    public enum Species { PREY, PREDATOR }
+
+    public enum Cause { HUNTED, STARVED, OLD_AGE }
+
+    public static final class Birth {
+        public final Species species;
+        public final AID parent;
+        public final String child;
+
+        Birth(Species species, AID parent, String child) {
+            this.species = species;
+            this.parent = parent;
+            this.child = child;
+        }
+    }
+
+    public static final class Death {
+        public final Species species;
+        public final Cause cause;
+        public final AID agent;
+
+        Death(Species species, Cause cause, AID agent) {
+            this.species = species;
+            this.cause = cause;
+            this.agent = agent;
+        }
+    }
+
+    public static final class Capture {
+        public final AID predator;
+        public final AID prey;
+        public final int predatorEnergy;
+
+        Capture(AID predator, AID prey, int predatorEnergy) {
+            this.predator = predator;
+            this.prey = prey;
+            this.predatorEnergy = predatorEnergy;
+        }
+    }
+
+    // Override only the events of interest
+    public interface Listener {
+        default void onBirth(Birth birth) {}
+        default void onDeath(Death death) {}
+        default void onCapture(Capture capture) {}
+    }
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Listener listener) { listeners.add(listener); }
+    public void unsubscribe(Listener listener) { listeners.remove(listener); }
+
+    public void publishBirth(Species species, AID parent, String child) {
+        Birth birth = new Birth(species, parent, child);
+        for (Listener listener : listeners) listener.onBirth(birth);
+    }
+
+    public void publishDeath(Species species, Cause cause, AID agent) {
+        Death death = new Death(species, cause, agent);
+        for (Listener listener : listeners) listener.onDeath(death);
+    }
+
+    public void publishCapture(AID predator, AID prey, int predatorEnergy) {
+        Capture capture = new Capture(predator, prey, predatorEnergy);
+        for (Listener listener : listeners) listener.onCapture(capture);
+    }
+}
@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+
+// Append-only record of every agent a world has created: parent, species,
+// birth tick, generation and inherited traits, one int id per agent. Entries
+// live in parallel primitive arrays split into fixed-size chunks (growing never
+// copies old data), about 29 bytes per birth. Children are linked to their
+// parent as an intrusive list (firstChild / nextSibling), so descendant walks
+// touch only the subtree.
+public class LineageStore {
+
+    public static final int NONE = -1;
+    public static final byte PREY = 0, PREDATOR = 1;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    private int[][] parent = new int[0][];
+    private int[][] firstChild = new int[0][];
+    private int[][] nextSibling = new int[0][];
+    private int[][] birthTick = new int[0][];
+    private int[][] generation = new int[0][];
+    private float[][] speed = new float[0][];
+    private float[][] vision = new float[0][];
+    private byte[][] species = new byte[0][];
+    private int size = 0;
+
+    // Founders (initial population, immigrants, manual spawns) pass NONE as parent
+    public synchronized int append(int parentId, byte speciesCode, int tick, double speedTrait, double visionTrait) {
+        if ((size & MASK) == 0 && (size >>> CHUNK_BITS) == parent.length) grow();
+        int id = size;
+        int c = id >>> CHUNK_BITS, i = id & MASK;
+        boolean known = parentId >= 0 && parentId < size;
+        parent[c][i] = known ? parentId : NONE;
+        firstChild[c][i] = NONE;
+        birthTick[c][i] = tick;
+        generation[c][i] = known ? get(generation, parentId) + 1 : 0;
+        speed[c][i] = (float) speedTrait;
+        vision[c][i] = (float) visionTrait;
+        species[c][i] = speciesCode;
+        if (known) {
+            nextSibling[c][i] = get(firstChild, parentId);
+            firstChild[parentId >>> CHUNK_BITS][parentId & MASK] = id;
+        } else {
+            nextSibling[c][i] = NONE;
+        }
+        size++;
+        return id;
+    }
+
+    private void grow() {
+        int n = parent.length + 1;
+        parent = Arrays.copyOf(parent, n);
+        firstChild = Arrays.copyOf(firstChild, n);
+        nextSibling = Arrays.copyOf(nextSibling, n);
+        birthTick = Arrays.copyOf(birthTick, n);
+        generation = Arrays.copyOf(generation, n);
+        speed = Arrays.copyOf(speed, n);
+        vision = Arrays.copyOf(vision, n);
+        species = Arrays.copyOf(species, n);
+        parent[n - 1] = new int[CHUNK];
+        firstChild[n - 1] = new int[CHUNK];
+        nextSibling[n - 1] = new int[CHUNK];
+        birthTick[n - 1] = new int[CHUNK];
+        generation[n - 1] = new int[CHUNK];
+        speed[n - 1] = new float[CHUNK];
+        vision[n - 1] = new float[CHUNK];
+        species[n - 1] = new byte[CHUNK];
+    }
+
+    private static int get(int[][] column, int id) { return column[id >>> CHUNK_BITS][id & MASK]; }
+
+    public synchronized int size() { return size; }
+
+    public synchronized void clear() {
+        size = 0; // chunks are kept and overwritten
+    }
+
+    public synchronized int getParent(int id) { return get(parent, check(id)); }
+    public synchronized int getBirthTick(int id) { return get(birthTick, check(id)); }
+    public synchronized int getGeneration(int id) { return get(generation, check(id)); }
+    public synchronized byte getSpecies(int id) { check(id); return species[id >>> CHUNK_BITS][id & MASK]; }
+    public synchronized float getSpeed(int id) { check(id); return speed[id >>> CHUNK_BITS][id & MASK]; }
+    public synchronized float getVision(int id) { check(id); return vision[id >>> CHUNK_BITS][id & MASK]; }
+
+    private int check(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("No lineage entry " + id);
+        return id;
+    }
+
+    // Visits every descendant of id (not id itself), depth first; returns how many
+    public synchronized int forEachDescendant(int id, IntConsumer visitor) {
+        check(id);
+        int[] stack = new int[64];
+        int top = 0, count = 0;
+        int child = get(firstChild, id);
+        if (child != NONE) stack[top++] = child;
+        while (top > 0) {
+            int node = stack[--top];
+            visitor.accept(node);
+            count++;
+            int sibling = get(nextSibling, node);
+            int first = get(firstChild, node);
+            if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            if (sibling != NONE) stack[top++] = sibling;
+            if (first != NONE) stack[top++] = first;
+        }
+        return count;
+    }
+
+    public int countDescendants(int id) {
+        return forEachDescendant(id, node -> {});
+    }
+
+    public synchronized int[] children(int id) {
+        check(id);
+        int n = 0;
+        for (int c = get(firstChild, id); c != NONE; c = get(nextSibling, c)) n++;
+        int[] out = new int[n];
+        for (int c = get(firstChild, id); c != NONE; c = get(nextSibling, c)) out[--n] = c; // oldest first
+        return out;
+    }
+
+    // Traits along the line of descent, founder first and id last
+    public static class Trajectory {
+        public final int[] ids, birthTicks;
+        public final float[] speeds, visions;
+
+        Trajectory(int length) {
+            ids = new int[length];
+            birthTicks = new int[length];
+            speeds = new float[length];
+            visions = new float[length];
+        }
+    }
+
+    public synchronized Trajectory trajectory(int id) {
+        check(id);
+        Trajectory t = new Trajectory(get(generation, id) + 1);
+        for (int k = t.ids.length - 1, node = id; k >= 0; k--, node = get(parent, node)) {
+            int c = node >>> CHUNK_BITS, i = node & MASK;
+            t.ids[k] = node;
+            t.birthTicks[k] = birthTick[c][i];
+            t.speeds[k] = speed[c][i];
+            t.visions[k] = vision[c][i];
+        }
+        return t;
+    }
+
+    public synchronized int[] descendants(int id) {
+        int[][] out = {new int[16]};
+        int n = forEachDescendant(id, new IntConsumer() {
+            int k = 0;
+            public void accept(int node) {
+                if (k == out[0].length) out[0] = Arrays.copyOf(out[0], k * 2);
+                out[0][k++] = node;
+            }
+        });
+        return Arrays.copyOf(out[0], n);
+    }
+
+    // {mean speed, mean vision, count} of id's descendants per generation below it (index 0 = children)
+    public synchronized double[][] descendantMeansByGeneration(int id) {
+        int base = getGeneration(id);
+        int[] nodes = descendants(id);
+        int depth = 0;
+        for (int node : nodes) depth = Math.max(depth, get(generation, node) - base);
+        double[][] means = new double[depth][3];
+        for (int node : nodes) {
+            double[] m = means[get(generation, node) - base - 1];
+            m[0] += speed[node >>> CHUNK_BITS][node & MASK];
+            m[1] += vision[node >>> CHUNK_BITS][node & MASK];
+            m[2]++;
+        }
+        for (double[] m : means) {
+            m[0] /= m[2];
+            m[1] /= m[2];
+        }
+        return means;
+    }
+
+    // id,parent,species,birthTick,generation,speed,vision
+    public synchronized void writeCsv(Writer out) throws IOException {
+        out.write("id,parent,species,birthTick,generation,speed,vision\n");
+        for (int id = 0; id < size; id++) {
+            int c = id >>> CHUNK_BITS, i = id & MASK;
+            out.write(String.format(Locale.ROOT, "%d,%d,%s,%d,%d,%.4f,%.2f\n", id, parent[c][i],
+                    species[c][i] == PREY ? "PREY" : "PREDATOR", birthTick[c][i], generation[c][i], speed[c][i], vision[c][i]));
+        }
+    }
+}
@@ -13,13 +13,26 @@ public class LotkaVolterraComparator extends JFrame {
     private double X0 = 20.0;
     private double Y0 = 5.0;
     
-    private double dt = 0.1;
-    private int steps = 2000;
+    // integration horizon and accuracy
+    private double tEnd;
+    private double rtol = 1e-8;
+    private double atol = 1e-10;
+    private int steps = 2000; // plotted samples
+    private int solverSteps;
     
     private List<Double> preyPopulation;
     private List<Double> predatorPopulation;
     
+    // stochastic baseline (Gillespie / tau-leaping realizations)
+    private int realizations = 500;
+    private StochasticLotkaVolterra.Result stochastic;
+    
     public LotkaVolterraComparator() {
+        this(200.0);
+    }
+    
+    public LotkaVolterraComparator(double tEnd) {
+        this.tEnd = tEnd;
         setTitle("Modèle de Lotka-Volterra - Comparaison Théorique");
         setSize(900, 600);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -34,25 +47,25 @@ public class LotkaVolterraComparator extends JFrame {
     }
     
     private void simulate() {
-        preyPopulation = new ArrayList<>();
-        predatorPopulation = new ArrayList<>();
-        
-        double X = X0;
-        double Y = Y0;
+        DormandPrince solver = new DormandPrince(rtol, atol);
+        DormandPrince.Solution solution = solver.integrate((t, y, dydt) -> {
+            dydt[0] = alpha * y[0] - beta * y[0] * y[1];
+            dydt[1] = delta * y[0] * y[1] - gamma * y[1];
+        }, 0.0, new double[]{X0, Y0}, tEnd);
+        solverSteps = solution.getStepCount();
         
+        // Dense output resampled on a uniform grid for plotting
+        double[] prey = solution.sample(0, steps);
+        double[] pred = solution.sample(1, steps);
+        preyPopulation = new ArrayList<>(steps);
+        predatorPopulation = new ArrayList<>(steps);
         for (int i = 0; i < steps; i++) {
-            preyPopulation.add(X);
-            predatorPopulation.add(Y);
-            
-            double dX = (alpha * X - beta * X * Y) * dt;
-            double dY = (delta * X * Y - gamma * Y) * dt;
-            
-            X += dX;
-            Y += dY;
-            
-            X = Math.max(0, X);
-            Y = Math.max(0, Y);
+            preyPopulation.add(prey[i]);
+            predatorPopulation.add(pred[i]);
         }
+        
+        StochasticLotkaVolterra model = new StochasticLotkaVolterra(alpha, beta, gamma, delta);
+        stochastic = model.run(Math.round(X0), Math.round(Y0), tEnd, realizations, 42L, 5, steps);
     }
     
     class ChartPanel extends JPanel {
@@ -80,7 +93,7 @@ public class LotkaVolterraComparator extends JFrame {
             
             g2d.setFont(new Font("Arial", Font.BOLD, 14));
             g2d.drawString("Population", 10, 30);
-            g2d.drawString("Temps (itérations)", width / 2 - 60, height - 10);
+            g2d.drawString(String.format("Temps (t = 0 .. %.0f)", tEnd), width / 2 - 60, height - 10);
             
             g2d.setFont(new Font("Arial", Font.PLAIN, 10));
             for (int i = 0; i <= 5; i++) {
@@ -95,6 +108,15 @@ public class LotkaVolterraComparator extends JFrame {
             double xScale = (double) (width - 2 * padding) / steps;
             double yScale = (double) (height - 2 * padding) / maxPop;
             
+            // a few stochastic realizations behind the deterministic curves
+            g2d.setStroke(new BasicStroke(1));
+            for (int r = 0; r < stochastic.samplePrey.length; r++) {
+                g2d.setColor(new Color(34, 139, 34, 50));
+                drawRealization(g2d, stochastic.samplePrey[r], xScale, yScale, padding, height);
+                g2d.setColor(new Color(220, 20, 60, 50));
+                drawRealization(g2d, stochastic.samplePredators[r], xScale, yScale, padding, height);
+            }
+            
             g2d.setColor(new Color(34, 139, 34));
             g2d.setStroke(new BasicStroke(2));
             for (int i = 1; i < preyPopulation.size(); i++) {
@@ -131,10 +153,27 @@ public class LotkaVolterraComparator extends JFrame {
             g2d.drawString(String.format("γ = %.2f (mort prédateurs)", gamma), width - 250, 140);
             g2d.drawString(String.format("δ = %.3f (efficacité)", delta), width - 250, 155);
             g2d.drawString(String.format("X₀ = %.0f, Y₀ = %.0f", X0, Y0), width - 250, 175);
+            g2d.drawString(String.format("Dormand-Prince: %d pas (tol %.0e)", solverSteps, rtol), width - 250, 195);
+            
+            g2d.drawString(String.format("Stochastique (%d réalisations):", stochastic.realizations), width - 250, 220);
+            g2d.drawString(String.format("P(extinction proies) = %.3f", stochastic.preyExtinctionProbability), width - 250, 235);
+            g2d.drawString(String.format("P(extinction prédateurs) = %.3f", stochastic.predatorExtinctionProbability), width - 250, 250);
+        }
+        
+        private void drawRealization(Graphics2D g2d, long[] values, double xScale, double yScale, int padding, int height) {
+            int top = padding;
+            for (int i = 1; i < values.length; i++) {
+                int x1 = padding + (int) ((i - 1) * xScale);
+                int y1 = Math.max(top, height - padding - (int) (values[i - 1] * yScale));
+                int x2 = padding + (int) (i * xScale);
+                int y2 = Math.max(top, height - padding - (int) (values[i] * yScale));
+                g2d.drawLine(x1, y1, x2, y2);
+            }
         }
     }
     
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new LotkaVolterraComparator());
+        double horizon = args.length > 0 ? Double.parseDouble(args[0]) : 200.0;
+        SwingUtilities.invokeLater(() -> new LotkaVolterraComparator(horizon));
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+// Streaming estimate of Lotka-Volterra parameters from sampled population counts.
+// Uses the log-linear form of the equations on consecutive samples:
+//   d(ln X)/dt = alpha - beta * Y      ->  regression of prey growth on Y
+//   d(ln Y)/dt = delta * X - gamma     ->  regression of predator growth on X
+// Both regressions keep running sums over a sliding window; samples entering
+// and leaving the window are added / subtracted, so no refit is needed.
+public class LotkaVolterraFitter {
+
+    private final int window;
+    private final double dt;
+
+    // ring buffer of regression points (midpoint populations and log growth rates)
+    private final double[] midX, midY, growX, growY;
+    private int head = 0;
+    private int count = 0;
+
+    private double lastX = -1, lastY = -1;
+
+    // running sums
+    private double sY, sYY, sRx, sYRx;
+    private double sX, sXX, sRy, sXRy;
+
+    // recent raw samples, used as initial condition for the fitted curve
+    private final double[] rawX, rawY;
+    private int rawHead = 0;
+    private int rawCount = 0;
+
+    public LotkaVolterraFitter(int window, double dt) {
+        this.window = window;
+        this.dt = dt;
+        midX = new double[window];
+        midY = new double[window];
+        growX = new double[window];
+        growY = new double[window];
+        rawX = new double[window + 1];
+        rawY = new double[window + 1];
+    }
+
+    public synchronized void reset() {
+        head = count = rawHead = rawCount = 0;
+        lastX = lastY = -1;
+        sY = sYY = sRx = sYRx = 0;
+        sX = sXX = sRy = sXRy = 0;
+    }
+
+    public synchronized void addSample(double x, double y) {
+        rawX[rawHead] = x;
+        rawY[rawHead] = y;
+        rawHead = (rawHead + 1) % rawX.length;
+        if (rawCount < rawX.length) rawCount++;
+
+        // log growth is undefined once a species hits zero; such pairs are skipped
+        if (lastX > 0 && lastY > 0 && x > 0 && y > 0) {
+            double mx = 0.5 * (x + lastX);
+            double my = 0.5 * (y + lastY);
+            double rx = (Math.log(x) - Math.log(lastX)) / dt;
+            double ry = (Math.log(y) - Math.log(lastY)) / dt;
+
+            if (count == window) {
+                int old = head;
+                sY -= midY[old]; sYY -= midY[old] * midY[old];
+                sRx -= growX[old]; sYRx -= midY[old] * growX[old];
+                sX -= midX[old]; sXX -= midX[old] * midX[old];
+                sRy -= growY[old]; sXRy -= midX[old] * growY[old];
+            } else {
+                count++;
+            }
+            midX[head] = mx;
+            midY[head] = my;
+            growX[head] = rx;
+            growY[head] = ry;
+            head = (head + 1) % window;
+
+            sY += my; sYY += my * my;
+            sRx += rx; sYRx += my * rx;
+            sX += mx; sXX += mx * mx;
+            sRy += ry; sXRy += mx * ry;
+        }
+        lastX = x;
+        lastY = y;
+    }
+
+    public synchronized boolean isReady() {
+        return count >= Math.max(8, window / 4);
+    }
+
+    // Returns {alpha, beta, gamma, delta}, or null when the window is degenerate
+    public synchronized double[] getParameters() {
+        if (!isReady()) return null;
+        double n = count;
+        double varY = n * sYY - sY * sY;
+        double varX = n * sXX - sX * sX;
+        if (Math.abs(varY) < 1e-9 || Math.abs(varX) < 1e-9) return null;
+
+        double slopeX = (n * sYRx - sY * sRx) / varY;   // -beta
+        double alpha = (sRx - slopeX * sY) / n;
+        double delta = (n * sXRy - sX * sRy) / varX;
+        double gamma = -(sRy - delta * sX) / n;
+        return new double[]{alpha, -slopeX, gamma, delta};
+    }
+
+    // Integrates the fitted model from the oldest sample of the window so the
+    // curve can be overlaid on the last {prey, predator} observations.
+    public double[][] fittedCurve() {
+        double[] p;
+        double x0, y0;
+        int points;
+        synchronized (this) {
+            p = getParameters();
+            points = Math.min(rawCount, window + 1);
+            int oldest = (rawHead - points + rawX.length) % rawX.length;
+            x0 = rawX[oldest];
+            y0 = rawY[oldest];
+        }
+        if (p == null || points < 2 || x0 <= 0 || y0 <= 0) return null;
+
+        double alpha = p[0], beta = p[1], gamma = p[2], delta = p[3];
+        DormandPrince solver = new DormandPrince(1e-6, 1e-8);
+        solver.setMaxSteps(10_000);
+        try {
+            DormandPrince.Solution sol = solver.integrate((t, y, dydt) -> {
+                dydt[0] = alpha * y[0] - beta * y[0] * y[1];
+                dydt[1] = delta * y[0] * y[1] - gamma * y[1];
+            }, 0.0, new double[]{x0, y0}, (points - 1) * dt);
+            return new double[][]{sol.sample(0, points), sol.sample(1, points)};
+        } catch (IllegalStateException e) {
+            return null; // fitted parameters blow up over the window
+        }
+    }
+}
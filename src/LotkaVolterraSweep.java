@@ -0,0 +1,262 @@
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+// Batch integration of many Lotka-Volterra parameter sets in parallel.
+// Parameters and state are kept as structure-of-arrays so each worker steps a
+// whole chunk of lanes with tight loops over primitive arrays.
+public class LotkaVolterraSweep {
+
+    private static final int CHUNK = 256;
+    private static final String[] PARAM_NAMES = {"alpha", "beta", "gamma", "delta", "x0", "y0"};
+
+    // parameter grid: {min, max, count} per parameter
+    private final double[][] ranges = {
+            {0.05, 0.2, 8},     // alpha
+            {0.01, 0.04, 8},    // beta
+            {0.05, 0.2, 8},     // gamma
+            {0.005, 0.02, 8},   // delta
+            {20.0, 20.0, 1},    // X0
+            {5.0, 5.0, 1}       // Y0
+    };
+
+    private double tEnd = 500.0;
+    private double dt = 0.05;
+    private double extinctionThreshold = 1.0; // less than one individual counts as extinct
+
+    // inputs (one entry per parameter set)
+    private double[] alpha, beta, gamma, delta, x0, y0;
+
+    // outputs
+    private double[] period, preyMin, preyMax, predMin, predMax, extinctionTime;
+    private byte[] extinctSpecies; // 0 = none, 1 = prey, 2 = predator
+
+    public void setRange(String name, double min, double max, int count) {
+        for (int i = 0; i < PARAM_NAMES.length; i++) {
+            if (PARAM_NAMES[i].equalsIgnoreCase(name)) {
+                ranges[i][0] = min;
+                ranges[i][1] = max;
+                ranges[i][2] = Math.max(1, count);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown parameter: " + name);
+    }
+
+    public void setHorizon(double tEnd) { this.tEnd = tEnd; }
+    public void setTimeStep(double dt) { this.dt = dt; }
+    public void setExtinctionThreshold(double threshold) { this.extinctionThreshold = threshold; }
+
+    public int size() {
+        int n = 1;
+        for (double[] r : ranges) n *= (int) r[2];
+        return n;
+    }
+
+    public void run() {
+        int n = size();
+        buildGrid(n);
+
+        period = new double[n];
+        preyMin = new double[n];
+        preyMax = new double[n];
+        predMin = new double[n];
+        predMax = new double[n];
+        extinctionTime = new double[n];
+        extinctSpecies = new byte[n];
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK;
+            integrateChunk(from, Math.min(n, from + CHUNK));
+        });
+    }
+
+    private void buildGrid(int n) {
+        double[][] columns = new double[PARAM_NAMES.length][n];
+        for (int i = 0; i < n; i++) {
+            int rest = i;
+            for (int p = 0; p < PARAM_NAMES.length; p++) {
+                int count = (int) ranges[p][2];
+                int idx = rest % count;
+                rest /= count;
+                double min = ranges[p][0], max = ranges[p][1];
+                columns[p][i] = count == 1 ? min : min + (max - min) * idx / (count - 1);
+            }
+        }
+        alpha = columns[0];
+        beta = columns[1];
+        gamma = columns[2];
+        delta = columns[3];
+        x0 = columns[4];
+        y0 = columns[5];
+    }
+
+    // RK4 in log space (u = ln X, v = ln Y) keeps populations positive:
+    //   u' = alpha - beta * e^v,  v' = delta * e^u - gamma
+    private void integrateChunk(int from, int to) {
+        int len = to - from;
+        double[] u = new double[len], v = new double[len];
+        double[] ku = new double[len], kv = new double[len];
+        double[] su = new double[len], sv = new double[len];
+        double[] lastDu = new double[len];
+        double[] firstPeak = new double[len], lastPeak = new double[len];
+        int[] peaks = new int[len];
+        boolean[] alive = new boolean[len];
+
+        double logThreshold = Math.log(extinctionThreshold);
+        int steps = (int) Math.ceil(tEnd / dt);
+
+        for (int l = 0; l < len; l++) {
+            int i = from + l;
+            u[l] = Math.log(x0[i]);
+            v[l] = Math.log(y0[i]);
+            lastDu[l] = alpha[i] - beta[i] * y0[i];
+            alive[l] = true;
+            preyMin[i] = preyMax[i] = x0[i];
+            predMin[i] = predMax[i] = y0[i];
+            extinctionTime[i] = Double.NaN;
+        }
+
+        for (int s = 1; s <= steps; s++) {
+            double t = s * dt;
+
+            // stage 1
+            for (int l = 0; l < len; l++) {
+                int i = from + l;
+                ku[l] = alpha[i] - beta[i] * Math.exp(v[l]);
+                kv[l] = delta[i] * Math.exp(u[l]) - gamma[i];
+                su[l] = ku[l];
+                sv[l] = kv[l];
+            }
+            // stages 2 and 3
+            for (int stage = 0; stage < 2; stage++) {
+                for (int l = 0; l < len; l++) {
+                    int i = from + l;
+                    double uu = u[l] + 0.5 * dt * ku[l];
+                    double vv = v[l] + 0.5 * dt * kv[l];
+                    ku[l] = alpha[i] - beta[i] * Math.exp(vv);
+                    kv[l] = delta[i] * Math.exp(uu) - gamma[i];
+                    su[l] += 2 * ku[l];
+                    sv[l] += 2 * kv[l];
+                }
+            }
+            // stage 4 and update
+            for (int l = 0; l < len; l++) {
+                int i = from + l;
+                double uu = u[l] + dt * ku[l];
+                double vv = v[l] + dt * kv[l];
+                su[l] += alpha[i] - beta[i] * Math.exp(vv);
+                sv[l] += delta[i] * Math.exp(uu) - gamma[i];
+                u[l] += dt / 6.0 * su[l];
+                v[l] += dt / 6.0 * sv[l];
+            }
+
+            // metrics
+            boolean anyAlive = false;
+            for (int l = 0; l < len; l++) {
+                if (!alive[l]) continue;
+                int i = from + l;
+                double x = Math.exp(u[l]);
+                double y = Math.exp(v[l]);
+                if (x < preyMin[i]) preyMin[i] = x;
+                if (x > preyMax[i]) preyMax[i] = x;
+                if (y < predMin[i]) predMin[i] = y;
+                if (y > predMax[i]) predMax[i] = y;
+
+                // prey peak: growth rate crosses from positive to non-positive
+                double du = alpha[i] - beta[i] * y;
+                if (lastDu[l] > 0 && du <= 0) {
+                    if (peaks[l] == 0) firstPeak[l] = t;
+                    lastPeak[l] = t;
+                    peaks[l]++;
+                }
+                lastDu[l] = du;
+
+                if (u[l] < logThreshold || v[l] < logThreshold) {
+                    extinctionTime[i] = t;
+                    extinctSpecies[i] = (byte) (u[l] < logThreshold ? 1 : 2);
+                    alive[l] = false;
+                } else {
+                    anyAlive = true;
+                }
+            }
+            if (!anyAlive) break;
+        }
+
+        for (int l = 0; l < len; l++) {
+            period[from + l] = peaks[l] >= 2 ? (lastPeak[l] - firstPeak[l]) / (peaks[l] - 1) : Double.NaN;
+        }
+    }
+
+    public void writeCsv(String path) throws IOException {
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(path))) {
+            out.write("alpha,beta,gamma,delta,x0,y0,period,prey_amplitude,pred_amplitude,prey_min,pred_min,extinction_time,extinct_species");
+            out.newLine();
+            for (int i = 0; i < alpha.length; i++) {
+                out.write(String.format(Locale.ROOT, "%g,%g,%g,%g,%g,%g,%g,%g,%g,%g,%g,%g,%s",
+                        alpha[i], beta[i], gamma[i], delta[i], x0[i], y0[i],
+                        period[i], preyMax[i] - preyMin[i], predMax[i] - predMin[i],
+                        preyMin[i], predMin[i], extinctionTime[i],
+                        extinctSpecies[i] == 0 ? "none" : extinctSpecies[i] == 1 ? "prey" : "predator"));
+                out.newLine();
+            }
+        }
+    }
+
+    // Binary layout: int count, then one record of 12 doubles + 1 byte per parameter set
+    public void writeBinary(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(alpha.length);
+            for (int i = 0; i < alpha.length; i++) {
+                out.writeDouble(alpha[i]);
+                out.writeDouble(beta[i]);
+                out.writeDouble(gamma[i]);
+                out.writeDouble(delta[i]);
+                out.writeDouble(x0[i]);
+                out.writeDouble(y0[i]);
+                out.writeDouble(period[i]);
+                out.writeDouble(preyMax[i] - preyMin[i]);
+                out.writeDouble(predMax[i] - predMin[i]);
+                out.writeDouble(preyMin[i]);
+                out.writeDouble(predMin[i]);
+                out.writeDouble(extinctionTime[i]);
+                out.writeByte(extinctSpecies[i]);
+            }
+        }
+    }
+
+    // Usage: LotkaVolterraSweep out.csv|out.bin [alpha=min:max:count ...] [tEnd=500] [dt=0.05] [threshold=1]
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : "lv_sweep.csv";
+        LotkaVolterraSweep sweep = new LotkaVolterraSweep();
+        for (int a = 1; a < args.length; a++) {
+            String[] kv = args[a].split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "tEnd": sweep.setHorizon(Double.parseDouble(kv[1])); break;
+                case "dt": sweep.setTimeStep(Double.parseDouble(kv[1])); break;
+                case "threshold": sweep.setExtinctionThreshold(Double.parseDouble(kv[1])); break;
+                default:
+                    String[] r = kv[1].split(":");
+                    double min = Double.parseDouble(r[0]);
+                    double max = r.length > 1 ? Double.parseDouble(r[1]) : min;
+                    int count = r.length > 2 ? Integer.parseInt(r[2]) : 1;
+                    sweep.setRange(kv[0], min, max, count);
+            }
+        }
+
+        long start = System.nanoTime();
+        sweep.run();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        if (output.endsWith(".bin")) sweep.writeBinary(output);
+        else sweep.writeCsv(output);
+        System.out.println("Sweep: " + sweep.size() + " parameter sets in " + elapsed + " ms -> " + output);
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Collection;
+
+// Mean-field surrogate of the agent simulation: prey and predator densities on a
+// grid over the same terrain as the Environment, evolved with a reaction-diffusion
+// model (logistic prey, Lotka-Volterra predation, diffusion with terrain mobility).
+//   u' = alpha u (1 - u/K) - beta f u v + Dp div(m grad u)
+//   v' = eff beta f u v - gamma v       + Dq div(m grad v)
+// m is the terrain mobility (swamp slows, rock blocks), f the predation factor
+// (reduced under forest cover). One step corresponds to one simulation tick.
+public class MeanFieldModel {
+
+    private final int cellSize;
+    private final int cols, rows;
+    private final int stride;        // padded row length (one ghost cell per side)
+
+    // padded fields, double-buffered
+    private double[] prey, pred, nextPrey, nextPred;
+
+    // per-cell terrain
+    private final boolean[] blocked;
+    private final double[] predation;
+    // face conductances towards east / south neighbours (0 across walls and rocks)
+    private final double[] condE, condS;
+
+    // reaction parameters (per tick, densities per cell)
+    private double alpha = 0.01;
+    private double capacity = 0.05;
+    private double beta = 2.5;
+    private double efficiency = 0.3;
+    private double gamma = 0.003;
+    private double preyDiffusion = 0.2;
+    private double predDiffusion = 0.2;
+
+    private static final double MAX_DIFFUSION = 0.2;
+    private static final double SWAMP_MOBILITY = 0.5;
+    private static final double FOREST_PREDATION = 0.3;
+
+    private long tick = 0;
+
+    public MeanFieldModel(Environment env, int cellSize) {
+        this.cellSize = cellSize;
+        this.cols = (env.getWidth() + cellSize - 1) / cellSize;
+        this.rows = (env.getHeight() + cellSize - 1) / cellSize;
+        this.stride = cols + 2;
+        int size = stride * (rows + 2);
+
+        prey = new double[size];
+        pred = new double[size];
+        nextPrey = new double[size];
+        nextPred = new double[size];
+        blocked = new boolean[size];
+        predation = new double[size];
+        condE = new double[size];
+        condS = new double[size];
+
+        double[] mobility = new double[size];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                int i = index(x, y);
+                double cx = (x + 0.5) * cellSize;
+                double cy = (y + 0.5) * cellSize;
+                Position center = new Position(cx, cy);
+                blocked[i] = env.isObstacle(cx, cy);
+                mobility[i] = blocked[i] ? 0 : env.isInSwamp(center) ? SWAMP_MOBILITY : 1.0;
+                predation[i] = env.isInForest(center) ? FOREST_PREDATION : 1.0;
+            }
+        }
+        // ghost cells keep mobility 0, so the border is a no-flux wall
+        for (int i = 0; i < size; i++) {
+            if (i + 1 < size) condE[i] = harmonic(mobility[i], mobility[i + 1]);
+            if (i + stride < size) condS[i] = harmonic(mobility[i], mobility[i + stride]);
+        }
+    }
+
+    private static double harmonic(double a, double b) {
+        return (a <= 0 || b <= 0) ? 0 : 2 * a * b / (a + b);
+    }
+
+    private int index(int x, int y) {
+        return (y + 1) * stride + (x + 1);
+    }
+
+    public void setReaction(double alpha, double capacity, double beta, double efficiency, double gamma) {
+        this.alpha = alpha;
+        this.capacity = capacity;
+        this.beta = beta;
+        this.efficiency = efficiency;
+        this.gamma = gamma;
+    }
+
+    public void setDiffusion(double preyDiffusion, double predDiffusion) {
+        // the explicit 5-point stencil needs D * dt < 1/4: at exactly 1/4 the
+        // checkerboard mode is amplified by -1 and never decays, so cap below it
+        this.preyDiffusion = Math.min(MAX_DIFFUSION, preyDiffusion);
+        this.predDiffusion = Math.min(MAX_DIFFUSION, predDiffusion);
+    }
+
+    // Deposits every agent into its cell, replacing the current fields
+    public void seedFromAgents(Collection<AgentInfo> agents) {
+        java.util.Arrays.fill(prey, 0);
+        java.util.Arrays.fill(pred, 0);
+        for (AgentInfo info : agents) {
+            int x = Math.max(0, Math.min(cols - 1, (int) (info.getPosition().getX() / cellSize)));
+            int y = Math.max(0, Math.min(rows - 1, (int) (info.getPosition().getY() / cellSize)));
+            int i = index(x, y);
+            if (blocked[i]) continue;
+            if (info.isPrey()) prey[i] += 1;
+            else if (info.isPredator()) pred[i] += 1;
+        }
+        tick = 0;
+    }
+
+    // Uniform initial densities given total populations
+    public void seedUniform(double totalPrey, double totalPred) {
+        int free = 0;
+        for (boolean b : blocked) if (!b) free++;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                int i = index(x, y);
+                prey[i] = blocked[i] ? 0 : totalPrey / free;
+                pred[i] = blocked[i] ? 0 : totalPred / free;
+            }
+        }
+        tick = 0;
+    }
+
+    public void step(int steps) {
+        for (int s = 0; s < steps; s++) step();
+    }
+
+    public void step() {
+        final double[] u = prey, v = pred, nu = nextPrey, nv = nextPred;
+        final double dp = preyDiffusion, dq = predDiffusion;
+        final double invK = 1.0 / capacity;
+
+        for (int y = 0; y < rows; y++) {
+            int i = index(0, y);
+            int end = i + cols;
+            for (; i < end; i++) {
+                if (blocked[i]) {
+                    nu[i] = 0;
+                    nv[i] = 0;
+                    continue;
+                }
+                double ui = u[i], vi = v[i];
+                double lapU = condE[i] * (u[i + 1] - ui) + condE[i - 1] * (u[i - 1] - ui)
+                        + condS[i] * (u[i + stride] - ui) + condS[i - stride] * (u[i - stride] - ui);
+                double lapV = condE[i] * (v[i + 1] - vi) + condE[i - 1] * (v[i - 1] - vi)
+                        + condS[i] * (v[i + stride] - vi) + condS[i - stride] * (v[i - stride] - vi);
+                double eaten = beta * predation[i] * ui * vi;
+                nu[i] = Math.max(0, ui + alpha * ui * (1 - ui * invK) - eaten + dp * lapU);
+                nv[i] = Math.max(0, vi + efficiency * eaten - gamma * vi + dq * lapV);
+            }
+        }
+        nextPrey = u;
+        nextPred = v;
+        prey = nu;
+        pred = nv;
+        tick++;
+    }
+
+    public double totalPrey() { return sum(prey); }
+    public double totalPredators() { return sum(pred); }
+
+    private double sum(double[] field) {
+        double total = 0;
+        for (double d : field) total += d;
+        return total;
+    }
+
+    public long getTick() { return tick; }
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public int getCellSize() { return cellSize; }
+    public boolean isBlocked(int x, int y) { return blocked[index(x, y)]; }
+    public double preyAt(int x, int y) { return prey[index(x, y)]; }
+    public double predatorsAt(int x, int y) { return pred[index(x, y)]; }
+}
@@ -0,0 +1,203 @@
+import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+// Side-by-side view of the mean-field surrogate and the live agent populations
+public class MeanFieldViewer extends JFrame {
+
+    private static final int MAX_POINTS = 300;
+
+    private final Environment environment;
+    private final MeanFieldModel model;
+    private final Timer timer;
+    private int stepsPerFrame = 1;
+
+    private final List<Double> modelPrey = new ArrayList<>();
+    private final List<Double> modelPred = new ArrayList<>();
+    private final List<Integer> livePrey = new ArrayList<>();
+    private final List<Integer> livePred = new ArrayList<>();
+
+    private final DensityPanel densityPanel;
+    private final ChartPanel chartPanel;
+    private final JLabel statusLabel;
+
+    public MeanFieldViewer(Environment environment) {
+        this.environment = environment;
+        this.model = new MeanFieldModel(environment, 10);
+        model.seedFromAgents(environment.getAllAgents().values());
+
+        setTitle("Modèle champ moyen - Réaction-Diffusion");
+        setSize(1100, 650);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+
+        densityPanel = new DensityPanel();
+        chartPanel = new ChartPanel();
+        add(densityPanel, BorderLayout.CENTER);
+        add(chartPanel, BorderLayout.SOUTH);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        controls.setBorder(new EmptyBorder(5, 10, 5, 10));
+        JButton syncBtn = new JButton("Synchroniser");
+        syncBtn.addActionListener(e -> {
+            model.seedFromAgents(environment.getAllAgents().values());
+            clearHistory();
+        });
+        controls.add(syncBtn);
+        controls.add(new JLabel("Pas / image:"));
+        JSpinner stepsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10000, 1));
+        stepsSpinner.addChangeListener(e -> stepsPerFrame = (Integer) stepsSpinner.getValue());
+        controls.add(stepsSpinner);
+        statusLabel = new JLabel();
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        controls.add(statusLabel);
+        add(controls, BorderLayout.NORTH);
+
+        // one frame per simulation tick, so 1 step / frame runs in lockstep with the agents
+        timer = new Timer(33, e -> advance());
+        timer.start();
+
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                timer.stop();
+            }
+        });
+
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    private void clearHistory() {
+        modelPrey.clear();
+        modelPred.clear();
+        livePrey.clear();
+        livePred.clear();
+    }
+
+    private void advance() {
+        long start = System.nanoTime();
+        model.step(stepsPerFrame);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        modelPrey.add(model.totalPrey());
+        modelPred.add(model.totalPredators());
+        livePrey.add(environment.getPreyCount());
+        livePred.add(environment.getPredatorCount());
+        if (modelPrey.size() > MAX_POINTS) {
+            modelPrey.remove(0);
+            modelPred.remove(0);
+            livePrey.remove(0);
+            livePred.remove(0);
+        }
+
+        statusLabel.setText(String.format("t = %d   modèle: %.1f proies / %.1f préd.   agents: %d / %d   (%d pas en %d µs)",
+                model.getTick(), model.totalPrey(), model.totalPredators(),
+                environment.getPreyCount(), environment.getPredatorCount(), stepsPerFrame, micros));
+        densityPanel.repaint();
+        chartPanel.repaint();
+    }
+
+    class DensityPanel extends JPanel {
+        private final BufferedImage image = new BufferedImage(model.getCols(), model.getRows(), BufferedImage.TYPE_INT_RGB);
+
+        DensityPanel() {
+            setBackground(Color.WHITE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+
+            double maxPrey = 1e-9, maxPred = 1e-9;
+            for (int y = 0; y < model.getRows(); y++) {
+                for (int x = 0; x < model.getCols(); x++) {
+                    maxPrey = Math.max(maxPrey, model.preyAt(x, y));
+                    maxPred = Math.max(maxPred, model.predatorsAt(x, y));
+                }
+            }
+            for (int y = 0; y < model.getRows(); y++) {
+                for (int x = 0; x < model.getCols(); x++) {
+                    int rgb;
+                    if (model.isBlocked(x, y)) {
+                        rgb = 0x808080;
+                    } else {
+                        int green = (int) (255 * Math.sqrt(model.preyAt(x, y) / maxPrey));
+                        int red = (int) (255 * Math.sqrt(model.predatorsAt(x, y) / maxPred));
+                        rgb = (red << 16) | (green << 8) | 40;
+                    }
+                    image.setRGB(x, y, rgb);
+                }
+            }
+
+            // same aspect ratio as the simulation world
+            double scale = Math.min((double) getWidth() / environment.getWidth(), (double) getHeight() / environment.getHeight());
+            int w = (int) (environment.getWidth() * scale);
+            int h = (int) (environment.getHeight() * scale);
+            g2d.drawImage(image, (getWidth() - w) / 2, (getHeight() - h) / 2, w, h, null);
+        }
+    }
+
+    class ChartPanel extends JPanel {
+        ChartPanel() {
+            setPreferredSize(new Dimension(900, 200));
+            setBackground(Color.WHITE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (modelPrey.isEmpty()) return;
+
+            int width = getWidth();
+            int height = getHeight();
+            int padding = 30;
+            double maxPop = 10;
+            for (int i = 0; i < modelPrey.size(); i++) {
+                maxPop = Math.max(maxPop, Math.max(modelPrey.get(i), modelPred.get(i)));
+                maxPop = Math.max(maxPop, Math.max(livePrey.get(i), livePred.get(i)));
+            }
+
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.drawLine(padding, padding, padding, height - padding);
+            g2d.drawLine(padding, height - padding, width - padding, height - padding);
+
+            double xScale = (double) (width - 2 * padding) / MAX_POINTS;
+            double yScale = (double) (height - 2 * padding) / maxPop;
+
+            Stroke solid = new BasicStroke(2f);
+            Stroke dashed = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{6f, 4f}, 0f);
+            g2d.setStroke(solid);
+            g2d.setColor(new Color(40, 167, 69));
+            drawSeries(g2d, livePrey, xScale, yScale, padding, height);
+            g2d.setColor(new Color(220, 53, 69));
+            drawSeries(g2d, livePred, xScale, yScale, padding, height);
+            g2d.setStroke(dashed);
+            g2d.setColor(new Color(40, 167, 69));
+            drawSeries(g2d, modelPrey, xScale, yScale, padding, height);
+            g2d.setColor(new Color(220, 53, 69));
+            drawSeries(g2d, modelPred, xScale, yScale, padding, height);
+
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            g2d.drawString("— agents    - - champ moyen", width - 200, padding - 10);
+        }
+
+        private void drawSeries(Graphics2D g2d, List<? extends Number> series, double xScale, double yScale, int padding, int height) {
+            for (int i = 1; i < series.size(); i++) {
+                int x1 = padding + (int) ((i - 1) * xScale);
+                int y1 = height - padding - (int) (series.get(i - 1).doubleValue() * yScale);
+                int x2 = padding + (int) (i * xScale);
+                int y2 = height - padding - (int) (series.get(i).doubleValue() * yScale);
+                g2d.drawLine(x1, y1, x2, y2);
+            }
+        }
+    }
+}
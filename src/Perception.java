@@ -0,0 +1,52 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// What one agent sees this cycle, built by Environment.perceive in a single
+// scan of the grid cells around it: the neighbours split by species, the
+// nearest of each and their centroids. Centroids are only meaningful when the
+// matching list is non-empty.
+public class Perception {
+    public final List<AgentInfo> prey = new ArrayList<>();
+    public final List<AgentInfo> predators = new ArrayList<>();
+
+    public AgentInfo nearestPrey, nearestPredator;
+    public double nearestPreyDistance = Double.POSITIVE_INFINITY;
+    public double nearestPredatorDistance = Double.POSITIVE_INFINITY;
+
+    public double preyCentroidX, preyCentroidY;
+    public double predatorCentroidX, predatorCentroidY;
+
+    void addPrey(AgentInfo info, double distance) {
+        prey.add(info);
+        preyCentroidX += info.getPosition().getX();
+        preyCentroidY += info.getPosition().getY();
+        if (distance < nearestPreyDistance) {
+            nearestPreyDistance = distance;
+            nearestPrey = info;
+        }
+    }
+
+    void addPredator(AgentInfo info, double distance) {
+        predators.add(info);
+        predatorCentroidX += info.getPosition().getX();
+        predatorCentroidY += info.getPosition().getY();
+        if (distance < nearestPredatorDistance) {
+            nearestPredatorDistance = distance;
+            nearestPredator = info;
+        }
+    }
+
+    // Turns the position sums into means once the scan is over
+    void finish() {
+        if (!prey.isEmpty()) {
+            preyCentroidX /= prey.size();
+            preyCentroidY /= prey.size();
+        }
+        if (!predators.isEmpty()) {
+            predatorCentroidX /= predators.size();
+            predatorCentroidY /= predators.size();
+        }
+    }
+
+    public int size() { return prey.size() + predators.size(); }
+}
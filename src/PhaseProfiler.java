@@ -0,0 +1,148 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Where a world's time goes, split by simulation phase and by map region.
+// Agents time their own cycles with a CycleTimer (lap style: each lap() charges
+// the time since the previous one to a phase) and charge the whole cycle to
+// the cell they stand in; the world driver and the GUI add food spawning and
+// repaint. Off by default: a disabled profiler costs one volatile read per cycle.
+public class PhaseProfiler {
+
+    public enum Phase {
+        PERCEPTION("Perception"),
+        DECISION("Décision"),
+        MOVEMENT("Mouvement"),
+        ENV_UPDATE("MAJ environnement"),
+        FOOD_SPAWN("Nourriture"),
+        REPAINT("Rendu");
+
+        public final String label;
+
+        Phase(String label) { this.label = label; }
+    }
+
+    public static final int CELL_SIZE = 50;
+    private static final Phase[] PHASES = Phase.values();
+
+    private final int cols, rows;
+    private final LongAdder[] phaseNanos = new LongAdder[PHASES.length];
+    private final LongAdder[] cellNanos;
+    private final LongAdder ticks = new LongAdder();
+    private volatile boolean enabled = false;
+
+    // snapshot() state, guarded by this: the ticker and the EDT (⏱ button) both take snapshots
+    private final long[] lastPhase = new long[PHASES.length];
+    private final long[] lastCell;
+    private final double[] cellRate;   // smoothed ms of agent time per second
+    private long lastTicks = 0;
+    private long lastSnapshotNanos = System.nanoTime();
+
+    public PhaseProfiler(int width, int height) {
+        cols = (width + CELL_SIZE - 1) / CELL_SIZE;
+        rows = (height + CELL_SIZE - 1) / CELL_SIZE;
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] = new LongAdder();
+        cellNanos = new LongAdder[cols * rows];
+        for (int i = 0; i < cellNanos.length; i++) cellNanos[i] = new LongAdder();
+        lastCell = new long[cellNanos.length];
+        cellRate = new double[cellNanos.length];
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public void tick() {
+        if (enabled) ticks.increment();
+    }
+
+    public void record(Phase phase, long nanos) {
+        if (enabled) phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    private void recordCell(Position position, long nanos) {
+        int cx = Math.max(0, Math.min(cols - 1, (int) (position.getX() / CELL_SIZE)));
+        int cy = Math.max(0, Math.min(rows - 1, (int) (position.getY() / CELL_SIZE)));
+        cellNanos[cy * cols + cx].add(nanos);
+    }
+
+    // One per agent behaviour; not thread-safe, agents run their cycles on one thread
+    public class CycleTimer {
+        private final long[] laps = new long[PHASES.length];
+        private boolean active;
+        private long start, last;
+
+        public void begin() {
+            active = enabled;
+            if (!active) return;
+            start = last = System.nanoTime();
+        }
+
+        public void lap(Phase phase) {
+            if (!active) return;
+            long now = System.nanoTime();
+            laps[phase.ordinal()] += now - last;
+            last = now;
+        }
+
+        // Remaining time counts as decision; the whole cycle is charged to the agent's cell
+        public void end(Position position) {
+            if (!active) return;
+            lap(Phase.DECISION);
+            for (int i = 0; i < laps.length; i++) {
+                if (laps[i] != 0) {
+                    phaseNanos[i].add(laps[i]);
+                    laps[i] = 0;
+                }
+            }
+            recordCell(position, last - start);
+            active = false;
+        }
+    }
+
+    public CycleTimer newCycleTimer() {
+        return new CycleTimer();
+    }
+
+    public static class Snapshot {
+        public final double[] phaseMillisPerTick;  // indexed by Phase.ordinal()
+        public final double[] cellMillisPerSecond; // row-major, cols x rows of CELL_SIZE
+        public final int cols, rows;
+        public final double maxCell;
+
+        Snapshot(double[] phases, double[] cells, int cols, int rows) {
+            this.phaseMillisPerTick = phases;
+            this.cellMillisPerSecond = cells;
+            this.cols = cols;
+            this.rows = rows;
+            double max = 0;
+            for (double c : cells) max = Math.max(max, c);
+            this.maxCell = max;
+        }
+    }
+
+    // Averages since the previous snapshot; the heatmap is smoothed over a few snapshots
+    public synchronized Snapshot snapshot() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastSnapshotNanos) / 1e9);
+        lastSnapshotNanos = now;
+
+        long t = ticks.sum();
+        long tickDelta = Math.max(1, t - lastTicks);
+        lastTicks = t;
+
+        double[] phases = new double[PHASES.length];
+        for (int i = 0; i < phases.length; i++) {
+            long total = phaseNanos[i].sum();
+            phases[i] = (total - lastPhase[i]) / 1e6 / tickDelta;
+            lastPhase[i] = total;
+        }
+
+        double[] cells = new double[cellNanos.length];
+        for (int i = 0; i < cells.length; i++) {
+            long total = cellNanos[i].sum();
+            double rate = (total - lastCell[i]) / 1e6 / seconds;
+            lastCell[i] = total;
+            cellRate[i] = 0.6 * cellRate[i] + 0.4 * rate;
+            cells[i] = cellRate[i];
+        }
+        return new Snapshot(phases, cells, cols, rows);
+    }
+}
@@ -1,16 +1,16 @@
 import jade.core.Agent;
 import jade.core.behaviours.CyclicBehaviour;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class PredatorAgent extends Agent {
     private Position position;
     private int energy;
     private Environment environment;
+    private VisualizerAgent.SimParams params;
     
     // genetics
     private double mySpeed;
     private double myVision;
+    private int lineageId; // entry in the world's LineageStore
 
     // movement persistence
     private double wanderAngle = Math.random() * 2 * Math.PI;
@@ -26,13 +26,15 @@ public class PredatorAgent extends Agent {
     private static final double CATCH_DISTANCE = 25.0;
     private static final int REPRO_COOLDOWN = 800;
     private static final int EATING_COOLDOWN = 100;
+    private static final EventLog.Sampler LOG_CAPTURE = EventLog.sampler("capture", EventLog.Level.INFO, 1);
 
     protected void setup() {
-        environment = Environment.getInstance();
         Object[] args = getArguments();
+        environment = Environment.fromArguments(args, 4);
+        params = environment.getParams();
 
         // Default Genetics
-        mySpeed = VisualizerAgent.SimParams.PRED_SPEED;
+        mySpeed = params.PRED_SPEED;
         myVision = 110.0;
 
         if (args != null && args.length >= 2) {
@@ -53,7 +55,8 @@ public class PredatorAgent extends Agent {
             );
         }
 
-        energy = VisualizerAgent.SimParams.PRED_ENERGY_START;
+        energy = params.PRED_ENERGY_START;
+        lineageId = environment.lineageFromArguments(args, 5, LineageStore.PREDATOR, mySpeed, myVision);
         environment.registerAgent(getAID(), "PREDATOR", position, energy, mySpeed, myVision);
 
         addBehaviour(new PredatorBrain());
@@ -67,62 +70,62 @@ public class PredatorAgent extends Agent {
         private int reproductionCooldown = 0;
         private int eatingCooldown = 0;
         private int cycleCount = 0;
+        private final PhaseProfiler.CycleTimer timer = environment.getProfiler().newCycleTimer();
 
         public void action() {
+            long cycleStart = System.nanoTime();
+            timer.begin();
             cycleCount++;
             handleCooldowns();
             
             if (energy <= 0) {
-                environment.recordDeath("PREDATOR", "STARVED");
+                environment.getEvents().publishDeath(LifeEventBus.Species.PREDATOR, LifeEventBus.Cause.STARVED, getAID());
                 myAgent.doDelete();
                 return;
             }
 
+            timer.lap(PhaseProfiler.Phase.DECISION);
             boolean inSwamp = environment.isInSwamp(position);
-            List<AgentInfo> nearby = environment.getNearbyAgents(getAID(), position, myVision);
-            
-            List<AgentInfo> preyList = nearby.stream()
-                    .filter(info -> {
-                        if (!info.isPrey()) return false;
-                        if (info.getAID().equals(getAID())) return false;
-                        if (environment.isInForest(info.getPosition())) {
-                            return position.distance(info.getPosition()) < (myVision * 0.3);
-                        }
-                        return true;
-                    })
-                    .collect(Collectors.toList());
+            // prey hiding in forests are only spotted at close range
+            Perception seen = environment.perceive(getAID(), position, myVision, 0.3);
+            timer.lap(PhaseProfiler.Phase.PERCEPTION);
 
             // opportunistic killing
-            if (eatingCooldown <= 0) {
-                for (AgentInfo prey : preyList) {
-                    if (position.distance(prey.getPosition()) <= CATCH_DISTANCE) {
-                        capture(prey);
-                        currentState = State.SCOUTING;
-                        return;
-                    }
-                }
+            if (eatingCooldown <= 0 && seen.nearestPreyDistance <= CATCH_DISTANCE) {
+                timer.lap(PhaseProfiler.Phase.DECISION);
+                capture(seen.nearestPrey);
+                currentState = State.SCOUTING;
+                timer.lap(PhaseProfiler.Phase.ENV_UPDATE);
+                timer.end(position);
+                environment.getMetrics().predatorCycle.record(System.nanoTime() - cycleStart);
+                return;
             }
+            timer.lap(PhaseProfiler.Phase.DECISION);
 
             switch (currentState) {
                 case RESTING:
                     handleRestingState(inSwamp);
                     break;
                 case HUNTING:
-                    handleHuntingState(preyList, inSwamp);
+                    handleHuntingState(seen, inSwamp);
                     break;
                 case SCOUTING:
                 default:
-                    handleScoutingState(preyList, nearby, inSwamp);
+                    handleScoutingState(seen, inSwamp);
                     break;
             }
+            timer.lap(PhaseProfiler.Phase.MOVEMENT);
 
             updatePositionAndStats();
+            timer.lap(PhaseProfiler.Phase.ENV_UPDATE);
             
-            if (currentState != State.HUNTING && energy >= VisualizerAgent.SimParams.PRED_REPRO_THRESHOLD) {
-                tryReproduce(nearby);
+            if (currentState != State.HUNTING && energy >= params.PRED_REPRO_THRESHOLD) {
+                tryReproduce(seen);
             }
+            timer.end(position);
+            environment.getMetrics().predatorCycle.record(System.nanoTime() - cycleStart);
 
-            try { Thread.sleep(40); } catch (Exception e) {}
+            try { Thread.sleep(params.scaledDelay(40)); } catch (Exception e) {}
         }
 
         private void handleRestingState(boolean inSwamp) {
@@ -147,7 +150,7 @@ public class PredatorAgent extends Agent {
             checkBoundsBounce();
         }
 
-        private void handleHuntingState(List<AgentInfo> preyList, boolean inSwamp) {
+        private void handleHuntingState(Perception seen, boolean inSwamp) {
             // Increased stamina drain (was 2)
             stamina -= inSwamp ? 5 : 3;
             
@@ -156,12 +159,12 @@ public class PredatorAgent extends Agent {
                 return;
             }
 
-            if (preyList.isEmpty()) {
+            if (seen.nearestPrey == null) {
                 currentState = State.SCOUTING;
                 return;
             }
 
-            AgentInfo target = findClosest(preyList);
+            AgentInfo target = seen.nearestPrey;
             
             double dx = target.getPosition().getX() - position.getX();
             double dy = target.getPosition().getY() - position.getY();
@@ -174,26 +177,27 @@ public class PredatorAgent extends Agent {
             moveTo(target.getPosition(), speed);
         }
 
-        private void handleScoutingState(List<AgentInfo> preyList, List<AgentInfo> nearby, boolean inSwamp) {
+        private void handleScoutingState(Perception seen, boolean inSwamp) {
             if (stamina < MAX_STAMINA) stamina++;
 
-            if (!preyList.isEmpty() && stamina > 30 && eatingCooldown <= 0) {
+            if (seen.nearestPrey != null && stamina > 30 && eatingCooldown <= 0) {
                 currentState = State.HUNTING;
                 return;
             }
 
-            List<AgentInfo> huntingPartners = nearby.stream()
-                    .filter(info -> info.isPredator() && !info.getAID().equals(getAID()))
-                    .filter(pred -> {
-                        for (AgentInfo prey : preyList) {
-                            if (pred.getPosition().distance(prey.getPosition()) < 150) return true;
-                        }
-                        return false;
-                    })
-                    .collect(Collectors.toList());
-
-            if (!huntingPartners.isEmpty() && stamina > 50) {
-                AgentInfo partner = huntingPartners.get(0);
+            // join a predator already close to the prey we see (O(predators) against the nearest prey)
+            AgentInfo partner = null;
+            if (seen.nearestPrey != null && stamina > 50) {
+                Position preyPos = seen.nearestPrey.getPosition();
+                for (AgentInfo pred : seen.predators) {
+                    if (pred.getPosition().distance(preyPos) < 150) {
+                        partner = pred;
+                        break;
+                    }
+                }
+            }
+
+            if (partner != null) {
                 double dx = partner.getPosition().getX() - position.getX();
                 double dy = partner.getPosition().getY() - position.getY();
                 wanderAngle = Math.atan2(dy, dx);
@@ -208,11 +212,8 @@ public class PredatorAgent extends Agent {
                 return;
             }
 
-            List<AgentInfo> nearbyPredators = nearby.stream()
-                    .filter(AgentInfo::isPredator).collect(Collectors.toList());
-            
-            if (nearbyPredators.size() > 3) {
-                disperseFromCrowd(nearbyPredators, inSwamp);
+            if (seen.predators.size() > 3) {
+                disperseFromCrowd(seen, inSwamp);
             } else {
                 wanderAngle += (Math.random() - 0.5) * 0.4;
                 
@@ -269,22 +270,11 @@ public class PredatorAgent extends Agent {
             );
         }
 
-        private AgentInfo findClosest(List<AgentInfo> agents) {
-            AgentInfo target = agents.get(0);
-            double minDist = position.distance(target.getPosition());
-            for (AgentInfo a : agents) {
-                double d = position.distance(a.getPosition());
-                if (d < minDist) {
-                    minDist = d;
-                    target = a;
-                }
-            }
-            return target;
-        }
-
         private void capture(AgentInfo prey) {
-            energy = Math.min(VisualizerAgent.SimParams.PRED_ENERGY_MAX,
-                    energy + VisualizerAgent.SimParams.PRED_ENERGY_GAIN);
+            SimulationEvents.Capture event = new SimulationEvents.Capture();
+            event.begin();
+            energy = Math.min(params.PRED_ENERGY_MAX,
+                    energy + params.PRED_ENERGY_GAIN);
             environment.unregisterAgent(prey.getAID());
             
             jade.lang.acl.ACLMessage killMsg = new jade.lang.acl.ACLMessage(jade.lang.acl.ACLMessage.REQUEST);
@@ -293,20 +283,30 @@ public class PredatorAgent extends Agent {
             send(killMsg);
             
             eatingCooldown = EATING_COOLDOWN;
-            System.out.println("🦁 " + getLocalName() + " ate prey");
+            environment.getEvents().publishCapture(getAID(), prey.getAID(), energy);
+            if (LOG_CAPTURE.next()) LOG_CAPTURE.log("🦁 " + getLocalName(), " ate prey");
+            if (event.shouldCommit()) {
+                event.world = environment.getId();
+                event.predator = getLocalName();
+                event.prey = prey.getAID().getLocalName();
+                event.predatorEnergy = energy;
+                event.commit();
+            }
         }
 
-        private void tryReproduce(List<AgentInfo> nearby) {
+        private void tryReproduce(Perception seen) {
             if (reproductionCooldown > 0) return;
             
-            List<AgentInfo> partners = nearby.stream().filter(AgentInfo::isPredator).collect(Collectors.toList());
-            if (partners.size() < 3 && Math.random() < 0.05) {
+            if (seen.predators.size() < 3 && Math.random() < 0.05) {
                 reproduce();
             }
         }
 
         private void reproduce() {
-            energy -= VisualizerAgent.SimParams.PRED_REPRO_COST;
+            SimulationEvents.Reproduction event = new SimulationEvents.Reproduction();
+            event.begin();
+            int parentEnergy = energy;
+            energy -= params.PRED_REPRO_COST;
             reproductionCooldown = REPRO_COOLDOWN;
             try {
                 double childSpeed = mySpeed * (0.90 + Math.random() * 0.20);
@@ -314,23 +314,24 @@ public class PredatorAgent extends Agent {
                 Object[] args = new Object[]{
                         position.getX() + (Math.random() - 0.5) * 60,
                         position.getY() + (Math.random() - 0.5) * 60,
-                        childSpeed, childVision
+                        childSpeed, childVision, environment, lineageId
                 };
-                getContainerController().createNewAgent("Predator_" + System.nanoTime(), "PredatorAgent", args).start();
+                String name = "Predator_w" + environment.getId() + "_" + System.nanoTime();
+                getContainerController().createNewAgent(name, "PredatorAgent", args).start();
+                environment.getEvents().publishBirth(LifeEventBus.Species.PREDATOR, getAID(), name);
             } catch (Exception e) {}
+            if (event.shouldCommit()) {
+                event.world = environment.getId();
+                event.species = "PREDATOR";
+                event.parent = getLocalName();
+                event.parentEnergy = parentEnergy;
+                event.commit();
+            }
         }
 
-        private void disperseFromCrowd(List<AgentInfo> nearbyPredators, boolean inSwamp) {
-            double avgX = 0, avgY = 0;
-            for (AgentInfo other : nearbyPredators) {
-                avgX += other.getPosition().getX();
-                avgY += other.getPosition().getY();
-            }
-            avgX /= nearbyPredators.size();
-            avgY /= nearbyPredators.size();
-            
-            double dx = position.getX() - avgX;
-            double dy = position.getY() - avgY;
+        private void disperseFromCrowd(Perception seen, boolean inSwamp) {
+            double dx = position.getX() - seen.predatorCentroidX;
+            double dy = position.getY() - seen.predatorCentroidY;
             
             wanderAngle = Math.atan2(dy, dx);
             
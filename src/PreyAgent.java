@@ -7,10 +7,12 @@ public class PreyAgent extends Agent {
     private int energy;
     private int age;
     private Environment environment;
+    private VisualizerAgent.SimParams params;
     
     // GENETICS
     private double mySpeed;
     private double myVision;
+    private int lineageId; // entry in the world's LineageStore
 
     // MOVEMENT PERSISTENCE
     private double wanderAngle = Math.random() * 2 * Math.PI;
@@ -29,14 +31,16 @@ public class PreyAgent extends Agent {
     private static final int AGE_MAX = 1500;
     private static final double FOOD_SEARCH_RADIUS = 120.0;
     private static final double FOOD_EAT_DISTANCE = 20.0;
+    private static final double FOOD_SCENT_THRESHOLD = FoodScent.levelAt(FOOD_SEARCH_RADIUS);
     private static final int REPRO_COOLDOWN = 300;
 
     protected void setup() {
-        environment = Environment.getInstance();
         Object[] args = getArguments();
+        environment = Environment.fromArguments(args, 4);
+        params = environment.getParams();
 
         // Default Genetics
-        mySpeed = VisualizerAgent.SimParams.PREY_SPEED;
+        mySpeed = params.PREY_SPEED;
         myVision = 70.0;
 
         if (args != null && args.length >= 2) {
@@ -53,8 +57,9 @@ public class PreyAgent extends Agent {
             );
         }
 
-        energy = VisualizerAgent.SimParams.PREY_ENERGY_START;
+        energy = params.PREY_ENERGY_START;
         age = 0;
+        lineageId = environment.lineageFromArguments(args, 5, LineageStore.PREY, mySpeed, myVision);
         environment.registerAgent(getAID(), "PREY", position, energy, mySpeed, myVision);
 
         addBehaviour(new PreyBehaviour());
@@ -66,12 +71,18 @@ public class PreyAgent extends Agent {
 
     private class PreyBehaviour extends CyclicBehaviour {
         private int reproductionCooldown = 0;
+        private final double[] threatGradient = new double[2];
+        private final double[] scentGradient = new double[2];
+        private final PhaseProfiler.CycleTimer timer = environment.getProfiler().newCycleTimer();
 
         public void action() {
+            long cycleStart = System.nanoTime();
+            timer.begin();
+
             // Check for DIE message
             jade.lang.acl.ACLMessage msg = receive();
             if (msg != null && "DIE".equals(msg.getContent())) {
-                environment.recordDeath("PREY", "HUNTED");
+                environment.getEvents().publishDeath(LifeEventBus.Species.PREY, LifeEventBus.Cause.HUNTED, getAID());
                 myAgent.doDelete();
                 return;
             }
@@ -81,7 +92,7 @@ public class PreyAgent extends Agent {
             // Lose energy every 3 cycles
             if (age % 3 == 0) {
                 energy -= 1; 
-                if (mySpeed > VisualizerAgent.SimParams.PREY_SPEED * 1.2) {
+                if (mySpeed > params.PREY_SPEED * 1.2) {
                     energy -= 1;
                 }
             }
@@ -90,52 +101,56 @@ public class PreyAgent extends Agent {
 
             // DEATH CONDITIONS
             if (energy <= 0) {
-                environment.recordDeath("PREY", "STARVED");
+                environment.getEvents().publishDeath(LifeEventBus.Species.PREY, LifeEventBus.Cause.STARVED, getAID());
                 myAgent.doDelete();
                 return;
             }
             if (age > AGE_MAX) {
-                environment.recordDeath("PREY", "OLD_AGE");
+                environment.getEvents().publishDeath(LifeEventBus.Species.PREY, LifeEventBus.Cause.OLD_AGE, getAID());
                 myAgent.doDelete();
                 return;
             }
 
             // TERRAIN CHECKS
+            timer.lap(PhaseProfiler.Phase.DECISION);
             boolean inSwamp = environment.isInSwamp(position);
 
             // Perception
-            List<AgentInfo> nearby = environment.getNearbyAgents(getAID(), position, myVision);
-            List<AgentInfo> predators = nearby.stream().filter(AgentInfo::isPredator).toList();
-            List<AgentInfo> nearbyPrey = nearby.stream().filter(AgentInfo::isPrey).toList();
+            Perception seen = environment.perceive(getAID(), position, myVision, 1.0);
+            List<AgentInfo> nearbyPrey = seen.prey;
+            timer.lap(PhaseProfiler.Phase.PERCEPTION);
 
             // BEHAVIOR
-            if (!predators.isEmpty()) {
-                flee(predators, inSwamp);
+            if (!seen.predators.isEmpty()) {
+                flee(seen, inSwamp);
+                timer.lap(PhaseProfiler.Phase.MOVEMENT);
             } else {
                 // Recover Stamina
                 if (stamina < MAX_STAMINA) stamina++;
 
-                Food nearestFood = environment.findNearestFood(position, FOOD_SEARCH_RADIUS);
+                // only food within reach is looked up; farther food is smelled
+                timer.lap(PhaseProfiler.Phase.DECISION);
+                Food bite = environment.findNearestFood(position, FOOD_EAT_DISTANCE);
+                boolean scented = bite == null && smellFood();
+                timer.lap(PhaseProfiler.Phase.PERCEPTION);
 
-                if (nearestFood != null) {
+                if (bite != null) {
                     // FOOD PRIORITY
-                    double dist = position.distance(nearestFood.getPosition());
-
-                    if (dist <= FOOD_EAT_DISTANCE) {
-                        if (environment.consumeFood(nearestFood)) {
-                            energy = Math.min(VisualizerAgent.SimParams.PREY_ENERGY_MAX,
-                                    energy + nearestFood.getEnergyValue());
-                        }
-                    } else {
-                        double dx = nearestFood.getPosition().getX() - position.getX();
-                        double dy = nearestFood.getPosition().getY() - position.getY();
-                        
-                        double speed = (energy < 50) ? mySpeed * 1.5 : mySpeed;
-                        if (inSwamp) speed *= 0.5;
-                        
-                        position = position.moveTo(dx, dy, speed);
-                        wanderAngle = Math.atan2(dy, dx);
+                    if (environment.consumeFood(bite)) {
+                        energy = Math.min(params.PREY_ENERGY_MAX,
+                                energy + bite.getEnergyValue());
                     }
+                    timer.lap(PhaseProfiler.Phase.ENV_UPDATE);
+                } else if (scented) {
+                    double dx = scentGradient[0];
+                    double dy = scentGradient[1];
+
+                    double speed = (energy < 50) ? mySpeed * 1.5 : mySpeed;
+                    if (inSwamp) speed *= 0.5;
+
+                    position = position.moveTo(dx, dy, speed);
+                    wanderAngle = Math.atan2(dy, dx);
+                    timer.lap(PhaseProfiler.Phase.MOVEMENT);
                 } else {
                     // FLOCKING BEHAVIOR
                     if (nearbyPrey.size() > 0) {
@@ -143,10 +158,11 @@ public class PreyAgent extends Agent {
                     } else {
                         wander(inSwamp);
                     }
+                    timer.lap(PhaseProfiler.Phase.MOVEMENT);
                 }
 
                 // Try to reproduce
-                if (energy >= VisualizerAgent.SimParams.PREY_REPRO_THRESHOLD && reproductionCooldown <= 0) {
+                if (energy >= params.PREY_REPRO_THRESHOLD && reproductionCooldown <= 0) {
                     if (Math.random() < 0.20) {
                         if (!nearbyPrey.isEmpty() && nearbyPrey.size() < 15) {
                             reproduce();
@@ -160,40 +176,50 @@ public class PreyAgent extends Agent {
             position.setY(Math.max(20, Math.min(environment.getHeight() - 20, position.getY())));
 
             // UPDATE POSITION AND ENERGY
+            timer.lap(PhaseProfiler.Phase.DECISION);
             environment.updatePosition(getAID(), position, energy);
+            timer.lap(PhaseProfiler.Phase.ENV_UPDATE);
+            timer.end(position);
+            environment.getMetrics().preyCycle.record(System.nanoTime() - cycleStart);
 
-            try { Thread.sleep(30); } catch (Exception e) {}
+            try { Thread.sleep(params.scaledDelay(30)); } catch (Exception e) {}
+        }
+
+        // True when the food scent here is at least that of one item at
+        // FOOD_SEARCH_RADIUS; scentGradient then points uphill
+        private boolean smellFood() {
+            FoodScent scent = environment.getScent();
+            if (scent.sample(position.getX(), position.getY()) < FOOD_SCENT_THRESHOLD) return false;
+            scent.gradient(position.getX(), position.getY(), scentGradient);
+            return scentGradient[0] * scentGradient[0] + scentGradient[1] * scentGradient[1] > 1e-12;
         }
 
         private void applyFlocking(List<AgentInfo> flock, boolean inSwamp) {
+            // separation: only the few prey closer than 25 px push us away
             double sepX = 0, sepY = 0;
-            double cohX = 0, cohY = 0;
-            int count = 0;
-
             for (AgentInfo other : flock) {
                 double d = position.distance(other.getPosition());
-                if (d > 0 && d < FLOCKING_RADIUS) {
-                    if (d < 25.0) {
-                        double pushX = position.getX() - other.getPosition().getX();
-                        double pushY = position.getY() - other.getPosition().getY();
-                        sepX += pushX / d;
-                        sepY += pushY / d;
-                    }
-                    cohX += other.getPosition().getX();
-                    cohY += other.getPosition().getY();
-                    count++;
+                if (d > 0 && d < 25.0) {
+                    sepX += (position.getX() - other.getPosition().getX()) / d;
+                    sepY += (position.getY() - other.getPosition().getY()) / d;
                 }
             }
 
-            if (count > 0) {
-                cohX /= count;
-                cohY /= count;
-                cohX = (cohX - position.getX()) / 100.0;
-                cohY = (cohY - position.getY()) / 100.0;
+            // cohesion and alignment from the environment's per-cell herd sums
+            double cohX = 0, cohY = 0, alignX = 0, alignY = 0;
+            Environment.Flock herd = environment.flockAround(getAID(), position, FLOCKING_RADIUS);
+            if (herd.count > 0) {
+                cohX = (herd.centroidX - position.getX()) / 100.0;
+                cohY = (herd.centroidY - position.getY()) / 100.0;
+                double heading = Math.sqrt(herd.headingX * herd.headingX + herd.headingY * herd.headingY);
+                if (heading > 1e-6) {
+                    alignX = herd.headingX / heading * 0.5;
+                    alignY = herd.headingY / heading * 0.5;
+                }
             }
 
-            double moveX = (sepX * SEPARATION_WEIGHT) + (cohX * COHESION_WEIGHT);
-            double moveY = (sepY * SEPARATION_WEIGHT) + (cohY * COHESION_WEIGHT);
+            double moveX = (sepX * SEPARATION_WEIGHT) + (cohX * COHESION_WEIGHT) + (alignX * ALIGNMENT_WEIGHT);
+            double moveY = (sepY * SEPARATION_WEIGHT) + (cohY * COHESION_WEIGHT) + (alignY * ALIGNMENT_WEIGHT);
 
             wanderAngle += (Math.random() - 0.5) * 0.2;
             moveX += Math.cos(wanderAngle) * 0.5;
@@ -240,17 +266,16 @@ public class PreyAgent extends Agent {
             }
         }
 
-        private void flee(List<AgentInfo> predators, boolean inSwamp) {
-            double predX = 0, predY = 0;
-            for (AgentInfo pred : predators) {
-                predX += pred.getPosition().getX();
-                predY += pred.getPosition().getY();
+        // Downhill on the world's predator threat field; the centroid of the
+        // predators in sight is the fallback before the first field is built
+        private void flee(Perception seen, boolean inSwamp) {
+            environment.getThreat().gradient(position.getX(), position.getY(), threatGradient);
+            double fleeX = -threatGradient[0];
+            double fleeY = -threatGradient[1];
+            if (fleeX * fleeX + fleeY * fleeY < 1e-12) {
+                fleeX = position.getX() - seen.predatorCentroidX;
+                fleeY = position.getY() - seen.predatorCentroidY;
             }
-            predX /= predators.size();
-            predY /= predators.size();
-
-            double fleeX = position.getX() - predX;
-            double fleeY = position.getY() - predY;
             
             wanderAngle = Math.atan2(fleeY, fleeX);
 
@@ -268,7 +293,10 @@ public class PreyAgent extends Agent {
         }
 
         private void reproduce() {
-            energy -= VisualizerAgent.SimParams.PREY_REPRO_COST;
+            SimulationEvents.Reproduction event = new SimulationEvents.Reproduction();
+            event.begin();
+            int parentEnergy = energy;
+            energy -= params.PREY_REPRO_COST;
             reproductionCooldown = REPRO_COOLDOWN;
 
             try {
@@ -282,11 +310,21 @@ public class PreyAgent extends Agent {
                         position.getX() + (Math.random() - 0.5) * 40,
                         position.getY() + (Math.random() - 0.5) * 40,
                         childSpeed,
-                        childVision
+                        childVision,
+                        environment,
+                        lineageId
                 };
-                String name = "Prey_" + System.nanoTime();
+                String name = "Prey_w" + environment.getId() + "_" + System.nanoTime();
                 getContainerController().createNewAgent(name, "PreyAgent", args).start();
+                environment.getEvents().publishBirth(LifeEventBus.Species.PREY, getAID(), name);
             } catch (Exception e) {}
+            if (event.shouldCommit()) {
+                event.world = environment.getId();
+                event.species = "PREY";
+                event.parent = getLocalName();
+                event.parentEnergy = parentEnergy;
+                event.commit();
+            }
         }
 
         private void disperseFromCrowd(List<AgentInfo> nearbyAgents, boolean inSwamp) {
@@ -0,0 +1,253 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+// End-to-end scenario benchmark: one headless world per rung of a population
+// ladder, run for a fixed number of ticks with immigration off. Reports world
+// ticks/s, agent updates/s (position updates applied by the Environment),
+// p50/p99 tick latency (interval between consecutive world ticks, i.e. how well
+// the ticker keeps up while the agent threads load the machine), allocation
+// rate and peak heap, as one JSON document for regression tracking.
+// The ticker is paced at scaledDelay(33), so ticksPerSecond can never exceed
+// maxTicksPerSecond: it shows whether the world keeps its pace, not how fast
+// it could go. tickWorkP99Micros (the driver's own work per tick) is the cost
+// figure to compare across versions.
+//
+// Usage: ScalabilityBenchmark [ladder=50:20,200:60,500:150,1000:300] [ticks=1000]
+//                             [warmupTicks=300] [seed=1] [out=scalability.json] [TIME_SCALE=10]
+public class ScalabilityBenchmark {
+
+    public static class Rung {
+        public final int prey, predators;
+        public int ticks;
+        public long wallMillis;
+        public double ticksPerSecond, maxTicksPerSecond, agentUpdatesPerSecond, meanAgents;
+        public double tickLatencyP50Micros, tickLatencyP99Micros, tickWorkP99Micros;
+        public double allocatedMBPerSecond = -1; // -1: not supported by this JVM
+        public double peakHeapMB;
+
+        Rung(int prey, int predators) {
+            this.prey = prey;
+            this.predators = predators;
+        }
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"prey\":%d,\"predators\":%d,\"ticks\":%d,\"wallMillis\":%d,\"ticksPerSecond\":%.2f,\"maxTicksPerSecond\":%.2f," +
+                    "\"agentUpdatesPerSecond\":%.1f,\"meanAgents\":%.1f,\"tickLatencyP50Micros\":%.1f," +
+                    "\"tickLatencyP99Micros\":%.1f,\"tickWorkP99Micros\":%.1f,\"allocatedMBPerSecond\":%.2f,\"peakHeapMB\":%.1f}",
+                    prey, predators, ticks, wallMillis, ticksPerSecond, maxTicksPerSecond, agentUpdatesPerSecond, meanAgents,
+                    tickLatencyP50Micros, tickLatencyP99Micros, tickWorkP99Micros, allocatedMBPerSecond, peakHeapMB);
+        }
+    }
+
+    private final VisualizerAgent.SimParams baseParams = new VisualizerAgent.SimParams();
+    private final List<int[]> ladder = new ArrayList<>();
+    private int ticks = 1000;
+    private int warmupTicks = 300;
+    private long seed = 1;
+
+    public ScalabilityBenchmark() {
+        baseParams.TIME_SCALE = 10;
+        baseParams.IMMIGRATION_ENABLED = false;
+    }
+
+    public List<Rung> run() {
+        if (ladder.isEmpty()) {
+            ladder.add(new int[]{50, 20});
+            ladder.add(new int[]{200, 60});
+            ladder.add(new int[]{500, 150});
+            ladder.add(new int[]{1000, 300});
+        }
+        // JIT, class loading and the shared platform come up in a small throwaway world
+        if (warmupTicks > 0) measure(ladder.get(0)[0], ladder.get(0)[1], warmupTicks);
+
+        List<Rung> rungs = new ArrayList<>();
+        for (int[] size : ladder) {
+            Rung rung = measure(size[0], size[1], ticks);
+            System.err.println("✓ " + rung.toJson());
+            rungs.add(rung);
+        }
+        return rungs;
+    }
+
+    private Rung measure(int prey, int predators, int tickCount) {
+        Rung rung = new Rung(prey, predators);
+        long[] tickStarts = new long[tickCount + 1];
+        long[] tickWork = new long[tickCount + 1];
+        long[] agentSum = new long[1];
+
+        HeadlessSimulation.RunConfig config = new HeadlessSimulation.RunConfig();
+        config.prey = prey;
+        config.predators = predators;
+        config.ticks = tickCount;
+        config.seed = seed;
+        config.recordSeries = false;
+        config.sampleEvery = 1;
+        config.listener = (index, p, q) -> agentSum[0] += p + q;
+        config.tickListener = (tick, start, end) -> {
+            if (tick < tickStarts.length) {
+                tickStarts[tick] = start;
+                tickWork[tick] = end - start;
+            }
+        };
+
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) pool.resetPeakUsage();
+        VisualizerAgent.SimParams params = baseParams.copy();
+        AllocationMeter allocation = AllocationMeter.start();
+        long start = System.nanoTime();
+
+        HeadlessSimulation.Result result = HeadlessSimulation.run(params, config);
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocation != null ? allocation.stop() : -1;
+
+        double seconds = elapsed / 1e9;
+        rung.ticks = result.ticks;
+        rung.wallMillis = elapsed / 1_000_000;
+        rung.ticksPerSecond = result.ticks / seconds;
+        rung.maxTicksPerSecond = 1000.0 / Math.max(1, params.scaledDelay(33));
+        rung.agentUpdatesPerSecond = result.positionUpdates / seconds;
+        rung.meanAgents = result.ticks > 0 ? (double) agentSum[0] / result.ticks : 0;
+
+        // tick 1 has no predecessor; intervals start at tick 2
+        int n = Math.min(result.ticks, tickCount);
+        long[] intervals = new long[Math.max(0, n - 1)];
+        for (int t = 2; t <= n; t++) intervals[t - 2] = tickStarts[t] - tickStarts[t - 1];
+        long[] work = Arrays.copyOfRange(tickWork, 1, n + 1);
+        rung.tickLatencyP50Micros = percentile(intervals, 0.50) / 1000.0;
+        rung.tickLatencyP99Micros = percentile(intervals, 0.99) / 1000.0;
+        rung.tickWorkP99Micros = percentile(work, 0.99) / 1000.0;
+
+        if (allocated >= 0) rung.allocatedMBPerSecond = allocated / (1024.0 * 1024.0) / seconds;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) peak += pool.getPeakUsage().getUsed();
+        }
+        rung.peakHeapMB = peak / (1024.0 * 1024.0);
+        return rung;
+    }
+
+    private static double percentile(long[] values, double p) {
+        if (values.length == 0) return 0;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+
+    // Heap allocated by the whole JVM over a run, threads that have since died
+    // included: the eden space freed by every collection (from GC
+    // notifications) plus eden growth since start. Objects allocated straight
+    // into the old generation (G1 humongous arrays) are not seen.
+    private static class AllocationMeter implements NotificationListener {
+        private final List<MemoryPoolMXBean> edens = new ArrayList<>();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final AtomicLong collected = new AtomicLong();
+        private long edenAtStart;
+
+        // null when the JVM has no eden pool (e.g. ZGC) or no GC notifications
+        static AllocationMeter start() {
+            AllocationMeter meter = new AllocationMeter();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.getName().contains("Eden")) meter.edens.add(pool);
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter) meter.emitters.add((NotificationEmitter) gc);
+            }
+            if (meter.edens.isEmpty() || meter.emitters.isEmpty()) return null;
+            meter.edenAtStart = meter.edenUsed();
+            for (NotificationEmitter emitter : meter.emitters) emitter.addNotificationListener(meter, null, null);
+            return meter;
+        }
+
+        private long edenUsed() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : edens) used += pool.getUsage().getUsed();
+            return used;
+        }
+
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+            GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+            for (MemoryPoolMXBean pool : edens) {
+                MemoryUsage before = info.getMemoryUsageBeforeGc().get(pool.getName());
+                MemoryUsage after = info.getMemoryUsageAfterGc().get(pool.getName());
+                if (before != null && after != null) collected.addAndGet(before.getUsed() - after.getUsed());
+            }
+        }
+
+        long stop() {
+            long bytes = collected.get() + edenUsed() - edenAtStart;
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // already gone
+                }
+            }
+            return bytes;
+        }
+    }
+
+    public String toJson(List<Rung> rungs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "{\"java\":\"%s\",\"cores\":%d,\"maxHeapMB\":%d,\"timeScale\":%.1f,\"ticks\":%d,\"seed\":%d,\"rungs\":[",
+                System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory() / (1024 * 1024), baseParams.TIME_SCALE, ticks, seed));
+        for (int i = 0; i < rungs.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(rungs.get(i).toJson());
+        }
+        return sb.append("]}").toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ScalabilityBenchmark bench = new ScalabilityBenchmark();
+        String output = null;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "ladder":
+                    for (String rung : kv[1].split(",")) {
+                        String[] pq = rung.split(":");
+                        bench.ladder.add(new int[]{Integer.parseInt(pq[0]), pq.length > 1 ? Integer.parseInt(pq[1]) : 0});
+                    }
+                    break;
+                case "ticks": bench.ticks = Integer.parseInt(kv[1]); break;
+                case "warmupTicks": bench.warmupTicks = Integer.parseInt(kv[1]); break;
+                case "seed": bench.seed = Long.parseLong(kv[1]); break;
+                case "out": output = kv[1]; break;
+                default: bench.baseParams.set(kv[0], kv[1]);
+            }
+        }
+
+        String json = bench.toJson(bench.run());
+        if (output != null) {
+            try (Writer writer = new FileWriter(output)) {
+                writer.write(json);
+                writer.write('\n');
+            }
+        }
+        System.out.println(json);
+        System.exit(0); // headless worlds keep the JADE platform alive
+    }
+}
@@ -0,0 +1,83 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Java Flight Recorder events for the simulation phases. With no recording
+// running, begin()/commit() are no-ops and the JIT removes the event objects,
+// so the instrumentation costs next to nothing. Record with e.g.
+//   java -XX:StartFlightRecording=filename=sim.jfr,settings=profile ...
+// and open the file in JDK Mission Control next to the GC and lock events.
+public class SimulationEvents {
+
+    @Name("preypredator.Tick")
+    @Label("World Tick")
+    @Category({"Prey-Predator", "World"})
+    @Description("One world tick: season, food spawning and immigration")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("World") int world;
+        @Label("Tick") int tick;
+        @Label("Prey") int prey;
+        @Label("Predators") int predators;
+        @Label("Food") int food;
+        @Label("Food Spawned") int foodSpawned;
+    }
+
+    @Name("preypredator.Perception")
+    @Label("Perception Query")
+    @Category({"Prey-Predator", "Agents"})
+    @Description("Environment.getNearbyAgents or perceive call")
+    @StackTrace(false)
+    public static class Perception extends Event {
+        @Label("World") int world;
+        @Label("Radius") double radius;
+        @Label("Cells Visited") int cells;
+        @Label("Result Size") int results;
+    }
+
+    @Name("preypredator.Capture")
+    @Label("Capture")
+    @Category({"Prey-Predator", "Agents"})
+    @StackTrace(false)
+    public static class Capture extends Event {
+        @Label("World") int world;
+        @Label("Predator") String predator;
+        @Label("Prey") String prey;
+        @Label("Predator Energy") int predatorEnergy;
+    }
+
+    @Name("preypredator.Reproduction")
+    @Label("Reproduction")
+    @Category({"Prey-Predator", "Agents"})
+    @StackTrace(false)
+    public static class Reproduction extends Event {
+        @Label("World") int world;
+        @Label("Species") String species;
+        @Label("Parent") String parent;
+        @Label("Parent Energy") int parentEnergy;
+    }
+
+    @Name("preypredator.SpawnBatch")
+    @Label("Spawn Batch")
+    @Category({"Prey-Predator", "World"})
+    @Description("Agents created by the world itself: initial population, immigration, GUI buttons")
+    @StackTrace(false)
+    public static class SpawnBatch extends Event {
+        @Label("World") int world;
+        @Label("Reason") String reason;
+        @Label("Prey") int prey;
+        @Label("Predators") int predators;
+    }
+
+    @Name("preypredator.Repaint")
+    @Label("Repaint")
+    @Category({"Prey-Predator", "GUI"})
+    @StackTrace(false)
+    public static class Repaint extends Event {
+        @Label("Agents Drawn") int agents;
+        @Label("Food Drawn") int food;
+    }
+}
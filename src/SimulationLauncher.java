@@ -14,6 +14,8 @@ public class SimulationLauncher {
             profile.setParameter(Profile.GUI, "true");
 
             AgentContainer mainContainer = runtime.createMainContainer(profile);
+            // ensemble replicas run as extra containers on this platform (default port)
+            HeadlessSimulation.usePlatform(mainContainer, 1099);
 
             System.out.println("=== Lancement de la Simulation Proie-Prédateur ===");
             System.out.println("Configuration initiale via l'interface graphique");
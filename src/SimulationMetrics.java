@@ -0,0 +1,185 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+// Low-overhead runtime metrics of one world, written from the agent threads
+// with LongAdders (no shared cache line under contention) and read over JMX as
+// "PreyPredator:type=Simulation,world=<id>" (jconsole, VisualVM, ...).
+public class SimulationMetrics {
+
+    // Log2-bucketed histogram of non-negative longs: bucket b counts values in
+    // [2^(b-1), 2^b). Percentiles are accurate to a factor of 2, which is enough
+    // to tell a 5 us cycle from a 5 ms one.
+    public static class Histogram {
+        private final LongAdder[] buckets = new LongAdder[65];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        public Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+        }
+
+        public long getCount() { return count.sum(); }
+        public long getSum() { return sum.sum(); }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        // Midpoint of the bucket holding the p-th value
+        public double getPercentile(double p) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b].sum();
+                if (seen >= rank) return b == 0 ? 0 : 1.5 * (1L << (b - 1));
+            }
+            return Long.MAX_VALUE;
+        }
+
+        public void reset() {
+            for (LongAdder bucket : buckets) bucket.reset();
+            count.reset();
+            sum.reset();
+        }
+    }
+
+    // Event counter with a rate over the last few seconds, computed when read
+    public static class Rate {
+        private final LongAdder total = new LongAdder();
+        private long windowStartNanos = System.nanoTime();
+        private long windowStartTotal = 0;
+        private double lastRate = 0;
+
+        public void increment() { total.increment(); }
+        public long getTotal() { return total.sum(); }
+
+        public synchronized double perSecond() {
+            long now = System.nanoTime();
+            long current = total.sum();
+            double seconds = (now - windowStartNanos) / 1e9;
+            if (seconds >= 1.0) {
+                lastRate = (current - windowStartTotal) / seconds;
+                windowStartNanos = now;
+                windowStartTotal = current;
+            }
+            return lastRate;
+        }
+
+        public synchronized void reset() {
+            total.reset();
+            windowStartNanos = System.nanoTime();
+            windowStartTotal = 0;
+            lastRate = 0;
+        }
+    }
+
+    // JMX view, values in microseconds unless named otherwise
+    public interface View {
+        double getPreyCycleMeanMicros();
+        double getPreyCycleP99Micros();
+        double getPredatorCycleMeanMicros();
+        double getPredatorCycleP99Micros();
+        long getNeighborQueries();
+        double getNeighborQueriesPerSecond();
+        double getNeighborResultMean();
+        double getNeighborResultP99();
+        double getLockWaitMeanMicros();
+        double getLockWaitP99Micros();
+        double getLockWaitTotalMillis();
+        long getFoodScans();
+        double getFoodScanLengthMean();
+        long getBirths();
+        double getBirthsPerSecond();
+        long getDeaths();
+        double getDeathsPerSecond();
+        void reset();
+    }
+
+    public final Histogram preyCycle = new Histogram();        // nanos
+    public final Histogram predatorCycle = new Histogram();    // nanos
+    public final Histogram neighborResults = new Histogram();  // agents per getNearbyAgents
+    public final Histogram lockWait = new Histogram();         // nanos to enter the Environment monitor
+    public final Histogram foodScanLength = new Histogram();   // foods visited per findNearestFood
+    public final Rate neighborQueries = new Rate();
+    public final Rate births = new Rate();
+    public final Rate deaths = new Rate();
+
+    private ObjectName name;
+
+    public void recordLockWait(long requestedNanos) {
+        lockWait.record(System.nanoTime() - requestedNanos);
+    }
+
+    public void recordNeighborQuery(int results) {
+        neighborQueries.increment();
+        neighborResults.record(results);
+    }
+
+    public void reset() {
+        preyCycle.reset();
+        predatorCycle.reset();
+        neighborResults.reset();
+        lockWait.reset();
+        foodScanLength.reset();
+        neighborQueries.reset();
+        births.reset();
+        deaths.reset();
+    }
+
+    public synchronized void register(int worldId) {
+        if (name != null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("PreyPredator:type=Simulation,world=" + worldId);
+            server.registerMBean(new StandardMBean(new MBean(), View.class), objectName);
+            name = objectName;
+        } catch (JMException e) {
+            System.err.println("Cannot register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    public synchronized void unregister() {
+        if (name == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            System.err.println("Cannot unregister metrics MBean: " + e.getMessage());
+        }
+        name = null;
+    }
+
+    private class MBean implements View {
+        public double getPreyCycleMeanMicros() { return preyCycle.getMean() / 1000.0; }
+        public double getPreyCycleP99Micros() { return preyCycle.getPercentile(0.99) / 1000.0; }
+        public double getPredatorCycleMeanMicros() { return predatorCycle.getMean() / 1000.0; }
+        public double getPredatorCycleP99Micros() { return predatorCycle.getPercentile(0.99) / 1000.0; }
+        public long getNeighborQueries() { return neighborQueries.getTotal(); }
+        public double getNeighborQueriesPerSecond() { return neighborQueries.perSecond(); }
+        public double getNeighborResultMean() { return neighborResults.getMean(); }
+        public double getNeighborResultP99() { return neighborResults.getPercentile(0.99); }
+        public double getLockWaitMeanMicros() { return lockWait.getMean() / 1000.0; }
+        public double getLockWaitP99Micros() { return lockWait.getPercentile(0.99) / 1000.0; }
+        public double getLockWaitTotalMillis() { return lockWait.getSum() / 1e6; }
+        public long getFoodScans() { return foodScanLength.getCount(); }
+        public double getFoodScanLengthMean() { return foodScanLength.getMean(); }
+        public long getBirths() { return births.getTotal(); }
+        public double getBirthsPerSecond() { return births.perSecond(); }
+        public long getDeaths() { return deaths.getTotal(); }
+        public double getDeathsPerSecond() { return deaths.perSecond(); }
+        public void reset() { SimulationMetrics.this.reset(); }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Stochastic (individual based) Lotka-Volterra model, integer populations with
+// four reaction channels:
+//   prey birth      X -> X+1   rate alpha X
+//   predation       X -> X-1   rate beta X Y
+//   predator birth  Y -> Y+1   rate delta X Y
+//   predator death  Y -> Y-1   rate gamma Y
+// Small populations use the exact Gillespie direct method; large ones use
+// tau-leaping with Poisson event counts. Realizations run in parallel.
+public class StochasticLotkaVolterra {
+
+    public enum Mode { EXACT, TAU_LEAP, AUTO }
+
+    private final double alpha, beta, gamma, delta;
+    private Mode mode = Mode.AUTO;
+    private double tau = 0.05;
+    private int leapThreshold = 200; // AUTO: leap only while both populations exceed this
+    private long maxPopulation = 1_000_000;
+
+    public StochasticLotkaVolterra(double alpha, double beta, double gamma, double delta) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.delta = delta;
+    }
+
+    public void setMode(Mode mode) { this.mode = mode; }
+    public void setTau(double tau) { this.tau = tau; }
+    public void setLeapThreshold(int threshold) { this.leapThreshold = threshold; }
+
+    public static class Result {
+        public int realizations;
+        public double preyExtinctionProbability;
+        public double predatorExtinctionProbability;
+        public double meanExtinctionTime = Double.NaN;   // over realizations where a species died out
+        public double[] extinctionTimes;                 // NaN when both species survived
+        public long[][] samplePrey;                      // [trajectory][sample]
+        public long[][] samplePredators;
+    }
+
+    // Runs the given number of realizations; the first keepTrajectories of them
+    // are also sampled on a uniform grid of the given number of points.
+    public Result run(long x0, long y0, double tEnd, int realizations, long seed, int keepTrajectories, int samples) {
+        Result result = new Result();
+        result.realizations = realizations;
+        result.extinctionTimes = new double[realizations];
+        int kept = Math.min(keepTrajectories, realizations);
+        result.samplePrey = new long[kept][];
+        result.samplePredators = new long[kept][];
+        byte[] extinct = new byte[realizations];
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[realizations];
+        for (int r = 0; r < realizations; r++) streams[r] = root.split();
+
+        IntStream.range(0, realizations).parallel().forEach(r -> {
+            long[] prey = r < kept ? new long[samples] : null;
+            long[] pred = r < kept ? new long[samples] : null;
+            double[] out = new double[1];
+            extinct[r] = simulate(x0, y0, tEnd, streams[r], prey, pred, out);
+            result.extinctionTimes[r] = out[0];
+            if (prey != null) {
+                result.samplePrey[r] = prey;
+                result.samplePredators[r] = pred;
+            }
+        });
+
+        int preyDead = 0, predDead = 0, anyDead = 0;
+        double timeSum = 0;
+        for (int r = 0; r < realizations; r++) {
+            if ((extinct[r] & 1) != 0) preyDead++;
+            if ((extinct[r] & 2) != 0) predDead++;
+            if (extinct[r] != 0) {
+                anyDead++;
+                timeSum += result.extinctionTimes[r];
+            }
+        }
+        result.preyExtinctionProbability = (double) preyDead / realizations;
+        result.predatorExtinctionProbability = (double) predDead / realizations;
+        if (anyDead > 0) result.meanExtinctionTime = timeSum / anyDead;
+        return result;
+    }
+
+    // Returns a bit set of extinct species (1 = prey, 2 = predator); out[0] receives the extinction time
+    private byte simulate(long x, long y, double tEnd, SplittableRandom rng, long[] samplePrey, long[] samplePred, double[] out) {
+        double t = 0;
+        int nextSample = 0;
+        out[0] = Double.NaN;
+
+        // the state (x, y) holds over [t, next event): samples before the next
+        // event are filled with it before the event is applied
+        while (t < tEnd) {
+            if (x == 0 || y == 0) break;
+            // prey explosion without predators would never end; treat as saturated
+            if (x > maxPopulation) break;
+
+            double aBirth = alpha * x;
+            double aPredation = beta * x * y;
+            double aPredBirth = delta * x * y;
+            double aDeath = gamma * y;
+
+            boolean leap = mode == Mode.TAU_LEAP || (mode == Mode.AUTO && x > leapThreshold && y > leapThreshold);
+            if (leap) {
+                double step = Math.min(tau, tEnd - t);
+                nextSample = fillSamples(samplePrey, samplePred, nextSample, t + step, x, y, tEnd);
+                x += poisson(rng, aBirth * step) - poisson(rng, aPredation * step);
+                y += poisson(rng, aPredBirth * step) - poisson(rng, aDeath * step);
+                x = Math.max(0, x);
+                y = Math.max(0, y);
+                t += step;
+            } else {
+                double total = aBirth + aPredation + aPredBirth + aDeath;
+                t += -Math.log(1.0 - rng.nextDouble()) / total;
+                if (t >= tEnd) break;
+                nextSample = fillSamples(samplePrey, samplePred, nextSample, t, x, y, tEnd);
+                double pick = rng.nextDouble() * total;
+                if (pick < aBirth) x++;
+                else if (pick < aBirth + aPredation) x--;
+                else if (pick < aBirth + aPredation + aPredBirth) y++;
+                else y--;
+            }
+        }
+        // absorbed, saturated or past tEnd: the final state holds to the end
+        fillSamples(samplePrey, samplePred, nextSample, Double.POSITIVE_INFINITY, x, y, tEnd);
+
+        byte extinct = 0;
+        if (x == 0) extinct |= 1;
+        if (y == 0) extinct |= 2;
+        if (extinct != 0) out[0] = Math.min(t, tEnd);
+        return extinct;
+    }
+
+    // Fills the samples timed strictly before until with (x, y); returns the next sample index
+    private static int fillSamples(long[] samplePrey, long[] samplePred, int nextSample, double until, long x, long y, double tEnd) {
+        int samples = samplePrey == null ? 0 : samplePrey.length;
+        while (nextSample < samples && sampleTime(nextSample, samples, tEnd) < until) {
+            samplePrey[nextSample] = x;
+            samplePred[nextSample] = y;
+            nextSample++;
+        }
+        return nextSample;
+    }
+
+    private static double sampleTime(int i, int samples, double tEnd) {
+        return samples == 1 ? 0 : tEnd * i / (samples - 1);
+    }
+
+    private static long poisson(SplittableRandom rng, double lambda) {
+        if (lambda <= 0) return 0;
+        if (lambda < 30) {
+            // Knuth's multiplication method
+            double limit = Math.exp(-lambda);
+            double p = rng.nextDouble();
+            long k = 0;
+            while (p > limit) {
+                p *= rng.nextDouble();
+                k++;
+            }
+            return k;
+        }
+        // normal approximation for large means
+        double u1 = 1.0 - rng.nextDouble();
+        double u2 = rng.nextDouble();
+        double z = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+        return Math.max(0, Math.round(lambda + Math.sqrt(lambda) * z));
+    }
+
+    // Usage: StochasticLotkaVolterra [realizations] [tEnd] [x0] [y0] [exact|tau_leap|auto]
+    public static void main(String[] args) {
+        int realizations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        double tEnd = args.length > 1 ? Double.parseDouble(args[1]) : 200.0;
+        long x0 = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        long y0 = args.length > 3 ? Long.parseLong(args[3]) : 5;
+
+        StochasticLotkaVolterra model = new StochasticLotkaVolterra(0.1, 0.02, 0.1, 0.01);
+        if (args.length > 4) model.setMode(Mode.valueOf(args[4].toUpperCase()));
+
+        long start = System.nanoTime();
+        Result r = model.run(x0, y0, tEnd, realizations, 42L, 0, 0);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d realizations in %d ms%n", realizations, elapsed);
+        System.out.printf("P(prey extinct by t=%.0f)     = %.4f%n", tEnd, r.preyExtinctionProbability);
+        System.out.printf("P(predator extinct by t=%.0f) = %.4f%n", tEnd, r.predatorExtinctionProbability);
+        System.out.printf("Mean extinction time          = %.2f%n", r.meanExtinctionTime);
+    }
+}
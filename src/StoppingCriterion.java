@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Early termination for headless runs: checked on every sample, a criterion
+// returns the reason the run's outcome is decided, or null to keep going.
+// Criteria keep per-run state, so a fresh set is built for every run with parse().
+public interface StoppingCriterion {
+
+    String check(int tick, int prey, int predators, long elapsedMillis);
+
+    // Comma separated spec, e.g. "extinction,converged,wall=60000":
+    //   extinction       a species reached zero (the run must turn immigration off, see hasExtinction)
+    //   converged        the prey cycle repeats with stable period and amplitude, or the populations settled
+    //   ticks=N          tick budget
+    //   wall=MS          wall-clock budget in milliseconds
+    static List<StoppingCriterion> parse(String spec) {
+        List<StoppingCriterion> criteria = new ArrayList<>();
+        if (spec == null || spec.isEmpty()) return criteria;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=", 2);
+            switch (kv[0]) {
+                case "extinction": criteria.add(new Extinction()); break;
+                case "converged": criteria.add(new OscillationConvergence(8, 4, 0.15)); break;
+                case "ticks": criteria.add(new TickBudget(Integer.parseInt(kv[1]))); break;
+                case "wall": criteria.add(new WallTimeBudget(Long.parseLong(kv[1]))); break;
+                case "": break;
+                default: throw new IllegalArgumentException("Unknown stopping criterion: " + kv[0]);
+            }
+        }
+        return criteria;
+    }
+
+    // Immigration refills an extinct species, so an extinction would never stick
+    static boolean hasExtinction(List<StoppingCriterion> criteria) {
+        for (StoppingCriterion criterion : criteria) {
+            if (criterion instanceof Extinction) return true;
+        }
+        return false;
+    }
+
+    class Extinction implements StoppingCriterion {
+        public String check(int tick, int prey, int predators, long elapsedMillis) {
+            if (prey == 0) return "preyExtinct";
+            if (predators == 0) return "predatorExtinct";
+            return null;
+        }
+    }
+
+    class TickBudget implements StoppingCriterion {
+        private final int maxTicks;
+
+        public TickBudget(int maxTicks) {
+            this.maxTicks = maxTicks;
+        }
+
+        public String check(int tick, int prey, int predators, long elapsedMillis) {
+            return tick >= maxTicks ? "tickBudget" : null;
+        }
+    }
+
+    class WallTimeBudget implements StoppingCriterion {
+        private final long maxMillis;
+
+        public WallTimeBudget(long maxMillis) {
+            this.maxMillis = maxMillis;
+        }
+
+        public String check(int tick, int prey, int predators, long elapsedMillis) {
+            return elapsedMillis >= maxMillis ? "wallTimeBudget" : null;
+        }
+    }
+
+    // Smooths the prey series, tracks its crossings of the running mean and
+    // compares the last few cycles: once their lengths and peak heights agree
+    // within the tolerance (coefficient of variation) the cycle is considered
+    // settled. A series that stops oscillating and stays flat also counts.
+    class OscillationConvergence implements StoppingCriterion {
+        private final int smoothing;
+        private final int cycles;
+        private final double tolerance;
+
+        private final double[] recent;
+        private int samples = 0;
+        private double smoothedSum = 0;
+        private double mean = 0;
+        private boolean above = false;
+        private int lastCrossing = -1;
+        private double cyclePeak = 0;
+        private final double[] periods, peaks; // cycle lengths and peak heights above the mean
+        private int completedCycles = 0;
+        private int flatSamples = 0;
+
+        public OscillationConvergence(int smoothing, int cycles, double tolerance) {
+            this.smoothing = smoothing;
+            this.cycles = cycles;
+            this.tolerance = tolerance;
+            this.recent = new double[smoothing];
+            this.periods = new double[cycles];
+            this.peaks = new double[cycles];
+        }
+
+        public String check(int tick, int prey, int predators, long elapsedMillis) {
+            smoothedSum += prey - recent[samples % smoothing];
+            recent[samples % smoothing] = prey;
+            samples++;
+            if (samples < smoothing) return null;
+            double value = smoothedSum / smoothing;
+
+            // slow running mean the cycle oscillates around
+            mean = samples == smoothing ? value : mean + (value - mean) / Math.min(samples, 200);
+            cyclePeak = Math.max(cyclePeak, value);
+
+            // hysteresis keeps noise around the mean from counting as crossings
+            double band = Math.max(1.0, 0.05 * mean);
+            if (!above && value > mean + band) {
+                above = true;
+                if (lastCrossing >= 0) {
+                    periods[completedCycles % cycles] = samples - lastCrossing;
+                    peaks[completedCycles % cycles] = cyclePeak - mean;
+                    completedCycles++;
+                }
+                lastCrossing = samples;
+                cyclePeak = value;
+            } else if (above && value < mean - band) {
+                above = false;
+            }
+
+            if (completedCycles >= cycles && variation(periods) < tolerance && variation(peaks) < tolerance) {
+                return "converged";
+            }
+
+            flatSamples = Math.abs(value - mean) <= band ? flatSamples + 1 : 0;
+            if (flatSamples >= 20 * smoothing) return "steady";
+            return null;
+        }
+
+        private static double variation(double[] values) {
+            double sum = 0, sumSq = 0;
+            for (double v : values) {
+                sum += v;
+                sumSq += v * v;
+            }
+            double m = sum / values.length;
+            if (m <= 0) return Double.POSITIVE_INFINITY;
+            return Math.sqrt(Math.max(0, sumSq / values.length - m * m)) / m;
+        }
+    }
+}
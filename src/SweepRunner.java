@@ -0,0 +1,165 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Batch runner over SimParams: builds a grid or a random sample of parameter
+// values and runs one headless world per combination, as many at once as
+// there are cores, all inside this JVM. Each finished run is appended to a
+// JSON-lines file.
+//
+// Usage: SweepRunner out=results.jsonl [mode=grid|random] [samples=100] [seed=1]
+//                    [ticks=3000] [prey=15] [predators=8] [sampleEvery=10] [TIME_SCALE=4]
+//                    [stop=extinction,converged,wall=60000]
+//                    PREY_REPRO_COST=50:90:5 PRED_SPEED=2.5:3.5:3 ...
+public class SweepRunner {
+
+    private static class ParamSpec {
+        final String name;
+        final double min, max;
+        final int count;
+
+        ParamSpec(String name, double min, double max, int count) {
+            this.name = name;
+            this.min = min;
+            this.max = max;
+            this.count = Math.max(1, count);
+        }
+
+        double gridValue(int i) {
+            return count == 1 ? min : min + (max - min) * i / (count - 1);
+        }
+    }
+
+    private final List<ParamSpec> specs = new ArrayList<>();
+    private final VisualizerAgent.SimParams baseParams = new VisualizerAgent.SimParams();
+    private final HeadlessSimulation.RunConfig config = new HeadlessSimulation.RunConfig();
+    private String output = "sweep_results.jsonl";
+    private boolean random = false;
+    private int samples = 100;
+    private long seed = 1;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private BufferedWriter writer;
+    private int completed = 0;
+
+    public List<Map<String, Double>> buildRuns() {
+        List<Map<String, Double>> runs = new ArrayList<>();
+        if (random) {
+            Random rand = new Random(seed);
+            for (int r = 0; r < samples; r++) {
+                Map<String, Double> values = new LinkedHashMap<>();
+                for (ParamSpec spec : specs) {
+                    values.put(spec.name, spec.min + rand.nextDouble() * (spec.max - spec.min));
+                }
+                runs.add(values);
+            }
+        } else {
+            int total = 1;
+            for (ParamSpec spec : specs) total *= spec.count;
+            for (int r = 0; r < total; r++) {
+                Map<String, Double> values = new LinkedHashMap<>();
+                int rest = r;
+                for (ParamSpec spec : specs) {
+                    values.put(spec.name, spec.gridValue(rest % spec.count));
+                    rest /= spec.count;
+                }
+                runs.add(values);
+            }
+        }
+        return runs;
+    }
+
+    public void run() throws IOException, InterruptedException {
+        List<Map<String, Double>> runs = buildRuns();
+        System.out.println("Sweep: " + runs.size() + " runs, " + parallelism + " at a time -> " + output);
+
+        writer = new BufferedWriter(new FileWriter(output));
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        for (int i = 0; i < runs.size(); i++) {
+            final int runId = i;
+            final Map<String, Double> values = runs.get(i);
+            pool.submit(() -> runOne(runId, values, runs.size()));
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        writer.close();
+    }
+
+    private void runOne(int runId, Map<String, Double> values, int total) {
+        VisualizerAgent.SimParams params = baseParams.copy();
+        for (Map.Entry<String, Double> value : values.entrySet()) {
+            params.set(value.getKey(), String.valueOf(value.getValue()));
+        }
+
+        String result = null;
+        try {
+            result = HeadlessSimulation.run(params, config).toJson();
+        } catch (RuntimeException e) {
+            System.err.println("Run " + runId + " failed: " + e.getMessage());
+        }
+        writeResult(runId, values, result, total);
+    }
+
+    private synchronized void writeResult(int runId, Map<String, Double> values, String result, int total) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"run\":").append(runId).append(",\"params\":{");
+        boolean first = true;
+        for (Map.Entry<String, Double> value : values.entrySet()) {
+            if (!first) sb.append(',');
+            sb.append('"').append(value.getKey()).append("\":").append(String.format(Locale.ROOT, "%s", value.getValue()));
+            first = false;
+        }
+        sb.append("},\"result\":").append(result != null ? result : "null").append('}');
+        try {
+            writer.write(sb.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Cannot write result of run " + runId + ": " + e.getMessage());
+        }
+        completed++;
+        System.out.println("✓ Run " + runId + " done (" + completed + "/" + total + ")");
+    }
+
+    public static void main(String[] args) throws Exception {
+        SweepRunner sweep = new SweepRunner();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "out": sweep.output = kv[1]; break;
+                case "mode": sweep.random = kv[1].equalsIgnoreCase("random"); break;
+                case "samples": sweep.samples = Integer.parseInt(kv[1]); break;
+                case "seed": sweep.seed = Long.parseLong(kv[1]); break;
+                case "parallelism": sweep.parallelism = Integer.parseInt(kv[1]); break;
+                case "ticks": sweep.config.ticks = Integer.parseInt(kv[1]); break;
+                case "prey": sweep.config.prey = Integer.parseInt(kv[1]); break;
+                case "predators": sweep.config.predators = Integer.parseInt(kv[1]); break;
+                case "sampleEvery": sweep.config.sampleEvery = Math.max(1, Integer.parseInt(kv[1])); break;
+                case "stop": sweep.config.stopWhen = kv[1]; break;
+                default:
+                    String[] r = kv[1].split(":");
+                    if (r.length == 1) {
+                        // fixed value for every run
+                        sweep.baseParams.set(kv[0], kv[1]);
+                    } else {
+                        double min = Double.parseDouble(r[0]);
+                        double max = Double.parseDouble(r[1]);
+                        int count = r.length > 2 ? Integer.parseInt(r[2]) : 2;
+                        sweep.specs.add(new ParamSpec(kv[0], min, max, count));
+                    }
+            }
+        }
+        sweep.run();
+        System.exit(0); // headless worlds keep the JADE platform alive
+    }
+}
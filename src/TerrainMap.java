@@ -0,0 +1,181 @@
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.util.List;
+
+// Terrain rasterised once when the world is built: a byte mask of rock, forest
+// and swamp flags per 4 px cell, so terrain checks are one array read instead
+// of a contains() on every shape. Rocks also get a signed distance field
+// (> 0 outside, < 0 inside, in pixels); its gradient is the rock normal, a
+// flow field that steers blocked moves along the rock face. The map never
+// changes after construction and is read without locking.
+public class TerrainMap {
+
+    public static final int CELL_SIZE = 4;
+    public static final byte ROCK = 1, FOREST = 2, SWAMP = 4;
+    private static final float FAR = 1e6f;
+    private static final double HEAD_ON = 0.35; // |cos| between move and rock face below which a move counts as head-on
+
+    private final int cols, rows;
+    private final byte[] mask;
+    private final float[] rockDistance;
+
+    public TerrainMap(int width, int height, List<Shape> rocks, List<Shape> trees, List<Shape> swamps) {
+        cols = width / CELL_SIZE + 1;
+        rows = height / CELL_SIZE + 1;
+        mask = new byte[cols * rows];
+        for (Shape rock : rocks) paint(rock, ROCK);
+        for (Shape tree : trees) paint(tree, FOREST);
+        for (Shape swamp : swamps) paint(swamp, SWAMP);
+
+        boolean[] rock = new boolean[mask.length];
+        boolean[] free = new boolean[mask.length];
+        for (int i = 0; i < mask.length; i++) {
+            rock[i] = (mask[i] & ROCK) != 0;
+            free[i] = !rock[i];
+        }
+        float[] toRock = distanceTo(rock);
+        float[] toFree = distanceTo(free);
+        // cell centres on either side of an edge are one cell apart: the edge sits halfway
+        rockDistance = new float[mask.length];
+        for (int i = 0; i < mask.length; i++) {
+            rockDistance[i] = rock[i] ? -(toFree[i] - 0.5f) * CELL_SIZE : (toRock[i] - 0.5f) * CELL_SIZE;
+        }
+    }
+
+    // Flags every cell whose centre lies in the shape, testing only its bounding box
+    private void paint(Shape shape, byte flag) {
+        Rectangle b = shape.getBounds();
+        int c0 = Math.max(0, b.x / CELL_SIZE), c1 = Math.min(cols - 1, (b.x + b.width) / CELL_SIZE);
+        int r0 = Math.max(0, b.y / CELL_SIZE), r1 = Math.min(rows - 1, (b.y + b.height) / CELL_SIZE);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (shape.contains((c + 0.5) * CELL_SIZE, (r + 0.5) * CELL_SIZE)) mask[r * cols + c] |= flag;
+            }
+        }
+    }
+
+    // Distance in cells from each cell centre to the nearest seed cell centre:
+    // two raster passes propagating each neighbour's nearest seed, compared
+    // by squared integer distance
+    private float[] distanceTo(boolean[] seed) {
+        int n = seed.length;
+        int[] seedCol = new int[n], seedRow = new int[n], dist2 = new int[n];
+        for (int i = 0; i < n; i++) {
+            seedCol[i] = seed[i] ? i % cols : -1;
+            seedRow[i] = seed[i] ? i / cols : -1;
+            dist2[i] = seed[i] ? 0 : Integer.MAX_VALUE;
+        }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (r > 0) {
+                    if (c > 0) relax(seedCol, seedRow, dist2, c, r, c - 1, r - 1);
+                    relax(seedCol, seedRow, dist2, c, r, c, r - 1);
+                    if (c < cols - 1) relax(seedCol, seedRow, dist2, c, r, c + 1, r - 1);
+                }
+                if (c > 0) relax(seedCol, seedRow, dist2, c, r, c - 1, r);
+            }
+            for (int c = cols - 2; c >= 0; c--) relax(seedCol, seedRow, dist2, c, r, c + 1, r);
+        }
+        for (int r = rows - 1; r >= 0; r--) {
+            for (int c = cols - 1; c >= 0; c--) {
+                if (r < rows - 1) {
+                    if (c < cols - 1) relax(seedCol, seedRow, dist2, c, r, c + 1, r + 1);
+                    relax(seedCol, seedRow, dist2, c, r, c, r + 1);
+                    if (c > 0) relax(seedCol, seedRow, dist2, c, r, c - 1, r + 1);
+                }
+                if (c < cols - 1) relax(seedCol, seedRow, dist2, c, r, c + 1, r);
+            }
+            for (int c = 1; c < cols; c++) relax(seedCol, seedRow, dist2, c, r, c - 1, r);
+        }
+        float[] dist = new float[n];
+        for (int i = 0; i < n; i++) dist[i] = dist2[i] == Integer.MAX_VALUE ? FAR : (float) Math.sqrt(dist2[i]);
+        return dist;
+    }
+
+    private void relax(int[] seedCol, int[] seedRow, int[] dist2, int c, int r, int nc, int nr) {
+        int j = nr * cols + nc;
+        if (seedCol[j] < 0) return;
+        int dx = seedCol[j] - c, dy = seedRow[j] - r;
+        int d2 = dx * dx + dy * dy;
+        int i = r * cols + c;
+        if (d2 < dist2[i]) {
+            dist2[i] = d2;
+            seedCol[i] = seedCol[j];
+            seedRow[i] = seedRow[j];
+        }
+    }
+
+    private int cell(double x, double y) {
+        int c = Math.max(0, Math.min(cols - 1, (int) (x / CELL_SIZE)));
+        int r = Math.max(0, Math.min(rows - 1, (int) (y / CELL_SIZE)));
+        return r * cols + c;
+    }
+
+    public boolean is(double x, double y, byte flag) {
+        return (mask[cell(x, y)] & flag) != 0;
+    }
+
+    public boolean isRock(double x, double y) {
+        return (mask[cell(x, y)] & ROCK) != 0;
+    }
+
+    // Bilinear signed distance to the nearest rock edge, in pixels
+    public double rockDistance(double x, double y) {
+        double gx = Math.max(0, Math.min(cols - 1, x / CELL_SIZE - 0.5));
+        double gy = Math.max(0, Math.min(rows - 1, y / CELL_SIZE - 0.5));
+        int x0 = (int) gx, y0 = (int) gy;
+        int x1 = Math.min(cols - 1, x0 + 1), y1 = Math.min(rows - 1, y0 + 1);
+        double tx = gx - x0, ty = gy - y0;
+        double top = rockDistance[y0 * cols + x0] * (1 - tx) + rockDistance[y0 * cols + x1] * tx;
+        double bottom = rockDistance[y1 * cols + x0] * (1 - tx) + rockDistance[y1 * cols + x1] * tx;
+        return top * (1 - ty) + bottom * ty;
+    }
+
+    // Unit normal pointing away from the nearest rock; false where the field is flat
+    public boolean rockNormal(double x, double y, double[] out) {
+        double h = CELL_SIZE;
+        double nx = rockDistance(x + h, y) - rockDistance(x - h, y);
+        double ny = rockDistance(x, y + h) - rockDistance(x, y - h);
+        double len = Math.sqrt(nx * nx + ny * ny);
+        if (len < 1e-9) return false;
+        out[0] = nx / len;
+        out[1] = ny / len;
+        return true;
+    }
+
+    // Where a move from (fromX, fromY) to (toX, toY) ends up: unchanged when
+    // the target is clear, otherwise slid along the rock face with the same
+    // length, and as a last resort pushed out along the normal. Near head-on
+    // the side of the previous step (prevX, prevY) wins, so an agent keeps
+    // going round the rock instead of dithering at its front. out = {x, y}
+    public void resolveMove(double fromX, double fromY, double toX, double toY, double prevX, double prevY, double[] out) {
+        out[0] = toX;
+        out[1] = toY;
+        if (!isRock(toX, toY)) return;
+        double[] n = new double[2];
+        if (rockNormal(toX, toY, n)) {
+            double mx = toX - fromX, my = toY - fromY;
+            double tx = -n[1], ty = n[0];
+            double len = Math.sqrt(mx * mx + my * my);
+            double along = tx * mx + ty * my;
+            if (Math.abs(along) < HEAD_ON * len) along = tx * prevX + ty * prevY;
+            if (along < 0) {
+                tx = -tx;
+                ty = -ty;
+            }
+            out[0] = fromX + tx * len;
+            out[1] = fromY + ty * len;
+        }
+        // corners and agents already inside a rock: step out along the normal
+        for (int i = 0; i < 4 && isRock(out[0], out[1]); i++) {
+            if (!rockNormal(out[0], out[1], n)) break;
+            double depth = -rockDistance(out[0], out[1]) + CELL_SIZE * 0.5;
+            out[0] += n[0] * Math.max(depth, CELL_SIZE * 0.5);
+            out[1] += n[1] * Math.max(depth, CELL_SIZE * 0.5);
+        }
+        if (isRock(out[0], out[1])) {
+            out[0] = fromX;
+            out[1] = fromY;
+        }
+    }
+}
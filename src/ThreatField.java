@@ -0,0 +1,88 @@
+// Predator threat potential over the map, rebuilt once per world tick: every
+// predator stamps a precomputed exp(-d / FALLOFF) kernel (cut off at REACH)
+// onto a coarse grid, split over the four nearest cell centres. Prey read the
+// gradient with a few bilinear samples and flee downhill, so several
+// predators blend into one smooth escape direction and the cost per prey
+// does not depend on how many predators are around.
+// Each rebuild fills a fresh array (a few KB) and publishes it with one
+// volatile write, so readers always see a complete field without locking.
+public class ThreatField {
+
+    public static final int CELL_SIZE = 25;
+    private static final double FALLOFF = 60.0;
+    private static final double REACH = 200.0;
+
+    private final int cols, rows;
+    private final int kernelRadius;
+    private final float[] kernel; // (2r+1)^2 weights by cell offset
+    private volatile float[] field;
+
+    public ThreatField(int width, int height) {
+        cols = width / CELL_SIZE + 1;
+        rows = height / CELL_SIZE + 1;
+        kernelRadius = (int) Math.ceil(REACH / CELL_SIZE);
+        int side = 2 * kernelRadius + 1;
+        kernel = new float[side * side];
+        for (int dy = -kernelRadius; dy <= kernelRadius; dy++) {
+            for (int dx = -kernelRadius; dx <= kernelRadius; dx++) {
+                double d = Math.hypot(dx, dy) * CELL_SIZE;
+                kernel[(dy + kernelRadius) * side + dx + kernelRadius] = d > REACH ? 0f : (float) Math.exp(-d / FALLOFF);
+            }
+        }
+        field = new float[cols * rows];
+    }
+
+    // Called by the world driver thread only
+    public void recompute(Iterable<AgentInfo> agents) {
+        float[] f = new float[cols * rows];
+        for (AgentInfo info : agents) {
+            if (!info.isPredator()) continue;
+            // split the predator bilinearly over the four surrounding cell centres
+            double gx = Math.max(0, Math.min(cols - 1, info.getPosition().getX() / CELL_SIZE - 0.5));
+            double gy = Math.max(0, Math.min(rows - 1, info.getPosition().getY() / CELL_SIZE - 0.5));
+            int cx = (int) gx, cy = (int) gy;
+            float tx = (float) (gx - cx), ty = (float) (gy - cy);
+            stamp(f, cx, cy, (1 - tx) * (1 - ty));
+            if (tx > 0) stamp(f, cx + 1, cy, tx * (1 - ty));
+            if (ty > 0) stamp(f, cx, cy + 1, (1 - tx) * ty);
+            if (tx > 0 && ty > 0) stamp(f, cx + 1, cy + 1, tx * ty);
+        }
+        field = f;
+    }
+
+    private void stamp(float[] f, int cx, int cy, float weight) {
+        if (cx >= cols || cy >= rows) return;
+        int side = 2 * kernelRadius + 1;
+        int y0 = Math.max(0, cy - kernelRadius), y1 = Math.min(rows - 1, cy + kernelRadius);
+        int x0 = Math.max(0, cx - kernelRadius), x1 = Math.min(cols - 1, cx + kernelRadius);
+        for (int y = y0; y <= y1; y++) {
+            int k = (y - cy + kernelRadius) * side - cx + kernelRadius;
+            int row = y * cols;
+            for (int x = x0; x <= x1; x++) f[row + x] += weight * kernel[k + x];
+        }
+    }
+
+    // Bilinear threat at a point (cell values sit at cell centres)
+    public double sample(double x, double y) {
+        return sample(field, x, y);
+    }
+
+    private double sample(float[] f, double x, double y) {
+        double gx = Math.max(0, Math.min(cols - 1, x / CELL_SIZE - 0.5));
+        double gy = Math.max(0, Math.min(rows - 1, y / CELL_SIZE - 0.5));
+        int x0 = (int) gx, y0 = (int) gy;
+        int x1 = Math.min(cols - 1, x0 + 1), y1 = Math.min(rows - 1, y0 + 1);
+        double tx = gx - x0, ty = gy - y0;
+        double top = f[y0 * cols + x0] * (1 - tx) + f[y0 * cols + x1] * tx;
+        double bottom = f[y1 * cols + x0] * (1 - tx) + f[y1 * cols + x1] * tx;
+        return top * (1 - ty) + bottom * ty;
+    }
+
+    // Gradient of the threat at (x, y) by central differences; out = {dx, dy}
+    public void gradient(double x, double y, double[] out) {
+        float[] f = field; // one consistent buffer for all four samples
+        double h = CELL_SIZE;
+        out[0] = (sample(f, x + h, y) - sample(f, x - h, y)) / (2 * h);
+        out[1] = (sample(f, x, y + h) - sample(f, x, y - h)) / (2 * h);
+    }
+}
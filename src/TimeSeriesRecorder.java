@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Per-tick world time series written column by column into memory-mapped
+// segment files (seg-00000.ppts, seg-00001.ppts, ...). Only the current
+// segment is mapped, so memory stays constant however long the run.
+//
+// Segment layout, little endian:
+//   0  int magic 'PPTS'      4  int version     8  int row capacity
+//   12 int column count      16 int rows written (updated after every row)
+//   24 column descriptors, 32 bytes each: 31 bytes ASCII name + 1 byte type ('i' int32, 'f' float32)
+//   data starts at the next multiple of 64; column c occupies [data + c*4*capacity, +4*capacity)
+// so a column can be read straight from the file, e.g. numpy.memmap(path, '<f4', 'r', offset, (rows,)).
+public class TimeSeriesRecorder implements AutoCloseable {
+
+    public static final int MAGIC = 0x53545050; // "PPTS" read as little-endian bytes
+    public static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final int DESCRIPTOR = 32;
+
+    public static final String[] COLUMNS = {
+            "tick", "prey", "predators", "food", "season",
+            "preyHunted", "preyStarved", "preyOldAge", "predStarved",
+            "preySpeedMean", "preySpeedVar", "preyVisionMean", "preyVisionVar", "preyEnergyMean", "preyEnergyVar",
+            "predSpeedMean", "predSpeedVar", "predVisionMean", "predVisionVar", "predEnergyMean", "predEnergyVar"
+    };
+    private static final int FIRST_FLOAT = 9; // columns before this index are int32
+
+    private final Path directory;
+    private final int capacity;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int row = 0;
+    private long totalRows = 0;
+
+    public TimeSeriesRecorder(Path directory, int rowsPerSegment) throws IOException {
+        this.directory = directory;
+        this.capacity = rowsPerSegment;
+        Files.createDirectories(directory);
+        // segments left by an earlier run would otherwise be read as part of this one
+        List<Path> stale;
+        try (Stream<Path> list = Files.list(directory)) {
+            stale = list.filter(TimeSeriesRecorder::isSegment).toList();
+        }
+        for (Path old : stale) Files.delete(old);
+        openSegment(0);
+    }
+
+    public TimeSeriesRecorder(Path directory) throws IOException {
+        this(directory, 1 << 16);
+    }
+
+    public Path getDirectory() { return directory; }
+    public long getTotalRows() { return totalRows; }
+
+    private static int dataOffset() {
+        int header = HEADER + COLUMNS.length * DESCRIPTOR;
+        return (header + 63) & ~63;
+    }
+
+    private static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format(Locale.ROOT, "seg-%05d.ppts", index));
+    }
+
+    private static boolean isSegment(Path path) {
+        return path.getFileName().toString().matches("seg-\\d+\\.ppts");
+    }
+
+    private void openSegment(int index) throws IOException {
+        if (segment != null) segment.force();
+        long size = dataOffset() + (long) COLUMNS.length * 4 * capacity;
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, capacity);
+        segment.putInt(12, COLUMNS.length);
+        segment.putInt(16, 0);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            byte[] name = COLUMNS[c].getBytes(StandardCharsets.US_ASCII);
+            int at = HEADER + c * DESCRIPTOR;
+            for (int i = 0; i < DESCRIPTOR - 1; i++) segment.put(at + i, i < name.length ? name[i] : 0);
+            segment.put(at + DESCRIPTOR - 1, (byte) (c < FIRST_FLOAT ? 'i' : 'f'));
+        }
+        segmentIndex = index;
+        row = 0;
+    }
+
+    private void putInt(int column, int value) {
+        segment.putInt(dataOffset() + column * 4 * capacity + row * 4, value);
+    }
+
+    private void putFloat(int column, double value) {
+        segment.putFloat(dataOffset() + column * 4 * capacity + row * 4, (float) value);
+    }
+
+    // Appends one row with the current state of the world
+    public synchronized void record(Environment environment, int tick) throws IOException {
+        if (segment == null) return; // closed
+        if (row == capacity) openSegment(segmentIndex + 1);
+
+        // one pass, Welford mean / variance per species for speed, vision and energy
+        double[][] stats = new double[2][7]; // count, then mean/m2 pairs
+        for (AgentInfo info : environment.getAgentsView()) {
+            double[] s = stats[info.isPrey() ? 0 : 1];
+            s[0]++;
+            welford(s, 1, info.getSpeed());
+            welford(s, 3, info.getVisionRange());
+            welford(s, 5, info.getEnergy());
+        }
+        Environment.DeathStats deaths = environment.getStats();
+
+        putInt(0, tick);
+        putInt(1, (int) stats[0][0]);
+        putInt(2, (int) stats[1][0]);
+        putInt(3, environment.getFoodCount());
+        putInt(4, environment.getCurrentSeason().ordinal());
+        putInt(5, (int) deaths.getPreyHunted());
+        putInt(6, (int) deaths.getPreyStarved());
+        putInt(7, (int) deaths.getPreyOldAge());
+        putInt(8, (int) deaths.getPredStarved());
+        int column = FIRST_FLOAT;
+        for (double[] s : stats) {
+            for (int k = 1; k < 7; k += 2) {
+                putFloat(column++, s[k]);
+                putFloat(column++, s[0] > 1 ? s[k + 1] / (s[0] - 1) : 0);
+            }
+        }
+
+        row++;
+        totalRows++;
+        segment.putInt(16, row); // publish the row last
+    }
+
+    private static void welford(double[] s, int at, double x) {
+        double d = x - s[at];
+        s[at] += d / s[0];
+        s[at + 1] += d * (x - s[at]);
+    }
+
+    public synchronized void flush() {
+        if (segment != null) segment.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        segment = null; // unmapped once collected
+    }
+
+    // ==========================================
+    // READER
+    // ==========================================
+    // Maps every segment read-only; column accessors return views on the
+    // mapped file, nothing is copied. Segments are read in order from
+    // seg-00000 and reading stops at the first missing number.
+    public static class Reader {
+        private final List<ByteBuffer> segments = new ArrayList<>();
+
+        public Reader(Path directory) throws IOException {
+            for (int index = 0; ; index++) {
+                Path file = segmentPath(directory, index);
+                if (!Files.exists(file)) break;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                    if (buffer.getInt(0) != MAGIC) throw new IOException("Not a recorder segment: " + file);
+                    if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported segment version in " + file);
+                    segments.add(buffer);
+                }
+            }
+        }
+
+        public int getSegmentCount() { return segments.size(); }
+
+        public int rows(int segment) {
+            return segments.get(segment).getInt(16);
+        }
+
+        public long totalRows() {
+            long total = 0;
+            for (int s = 0; s < segments.size(); s++) total += rows(s);
+            return total;
+        }
+
+        public String[] columns(int segment) {
+            ByteBuffer b = segments.get(segment);
+            String[] names = new String[b.getInt(12)];
+            for (int c = 0; c < names.length; c++) {
+                byte[] raw = new byte[DESCRIPTOR - 1];
+                b.get(HEADER + c * DESCRIPTOR, raw);
+                int len = 0;
+                while (len < raw.length && raw[len] != 0) len++;
+                names[c] = new String(raw, 0, len, StandardCharsets.US_ASCII);
+            }
+            return names;
+        }
+
+        public boolean isFloat(int segment, int column) {
+            return segments.get(segment).get(HEADER + column * DESCRIPTOR + DESCRIPTOR - 1) == 'f';
+        }
+
+        private ByteBuffer slice(int segment, String column) {
+            ByteBuffer b = segments.get(segment);
+            String[] names = columns(segment);
+            int capacity = b.getInt(8);
+            int data = (HEADER + names.length * DESCRIPTOR + 63) & ~63;
+            for (int c = 0; c < names.length; c++) {
+                if (names[c].equals(column)) {
+                    return b.slice(data + c * 4 * capacity, rows(segment) * 4).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+
+        public IntBuffer ints(int segment, String column) {
+            return slice(segment, column).asIntBuffer();
+        }
+
+        public FloatBuffer floats(int segment, String column) {
+            return slice(segment, column).asFloatBuffer();
+        }
+    }
+
+    // Usage: TimeSeriesRecorder <directory>   prints the recording as CSV
+    public static void main(String[] args) throws IOException {
+        Reader reader = new Reader(Paths.get(args.length > 0 ? args[0] : "recording"));
+        if (reader.getSegmentCount() == 0) return;
+        String[] names = reader.columns(0);
+        System.out.println(String.join(",", names));
+        StringBuilder line = new StringBuilder();
+        for (int s = 0; s < reader.getSegmentCount(); s++) {
+            Object[] columns = new Object[names.length];
+            for (int c = 0; c < names.length; c++) {
+                columns[c] = reader.isFloat(s, c) ? reader.floats(s, names[c]) : reader.ints(s, names[c]);
+            }
+            for (int r = 0; r < reader.rows(s); r++) {
+                line.setLength(0);
+                for (int c = 0; c < names.length; c++) {
+                    if (c > 0) line.append(',');
+                    if (columns[c] instanceof FloatBuffer) line.append(String.format(Locale.ROOT, "%.4f", ((FloatBuffer) columns[c]).get(r)));
+                    else line.append(((IntBuffer) columns[c]).get(r));
+                }
+                System.out.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Live distribution of the inherited traits (speed, vision) of each species,
+// kept up to date by the Environment on register/unregister instead of being
+// rebuilt from a scan of all agents. Fixed bins over each trait's range;
+// values outside it land in the first or last bin. Traits never change after
+// registration and sums are fixed-point longs, so removing an agent undoes
+// exactly what adding it did and the means never drift.
+public class TraitHistogram {
+
+    public enum Trait {
+        SPEED("Vitesse", 0.0, 6.0),
+        VISION("Vision", 0.0, 300.0);
+
+        public final String label;
+        public final double min, max;
+
+        Trait(String label, double min, double max) {
+            this.label = label;
+            this.min = min;
+            this.max = max;
+        }
+
+        double of(AgentInfo info) {
+            return this == SPEED ? info.getSpeed() : info.getVisionRange();
+        }
+    }
+
+    public static final int BINS = 24;
+    private static final Trait[] TRAITS = Trait.values();
+    private static final double SCALE = 1e4; // fixed-point units per trait unit in the sums
+
+    // [species][trait], species 0 = prey, 1 = predators
+    private final LongAdder[][][] bins = new LongAdder[2][TRAITS.length][BINS];
+    private final LongAdder[][] sums = new LongAdder[2][TRAITS.length];
+    private final LongAdder[] counts = {new LongAdder(), new LongAdder()};
+
+    public TraitHistogram() {
+        for (int s = 0; s < 2; s++) {
+            for (int t = 0; t < TRAITS.length; t++) {
+                sums[s][t] = new LongAdder();
+                for (int b = 0; b < BINS; b++) bins[s][t][b] = new LongAdder();
+            }
+        }
+    }
+
+    private static int bin(Trait trait, double value) {
+        int b = (int) ((value - trait.min) / (trait.max - trait.min) * BINS);
+        return Math.max(0, Math.min(BINS - 1, b));
+    }
+
+    public void add(AgentInfo info) { update(info, 1); }
+    public void remove(AgentInfo info) { update(info, -1); }
+
+    private void update(AgentInfo info, int delta) {
+        int s = info.isPrey() ? 0 : 1;
+        for (Trait trait : TRAITS) {
+            double value = trait.of(info);
+            bins[s][trait.ordinal()][bin(trait, value)].add(delta);
+            sums[s][trait.ordinal()].add(delta * Math.round(value * SCALE));
+        }
+        counts[s].add(delta);
+    }
+
+    public static class Snapshot {
+        public final long[][][] bins;  // [species][trait][bin]
+        public final double[][] means; // [species][trait]
+        public final long[] counts;    // [species]
+
+        Snapshot(long[][][] bins, double[][] means, long[] counts) {
+            this.bins = bins;
+            this.means = means;
+            this.counts = counts;
+        }
+
+        public long maxBin(int species, Trait trait) {
+            long max = 0;
+            for (long c : bins[species][trait.ordinal()]) max = Math.max(max, c);
+            return max;
+        }
+    }
+
+    // Cost independent of the population: 2 x traits x BINS counter reads
+    public Snapshot snapshot() {
+        long[][][] b = new long[2][TRAITS.length][BINS];
+        double[][] means = new double[2][TRAITS.length];
+        long[] n = new long[2];
+        for (int s = 0; s < 2; s++) {
+            n[s] = counts[s].sum();
+            for (int t = 0; t < TRAITS.length; t++) {
+                for (int k = 0; k < BINS; k++) b[s][t][k] = Math.max(0, bins[s][t][k].sum());
+                means[s][t] = n[s] > 0 ? sums[s][t].sum() / SCALE / n[s] : 0;
+            }
+        }
+        return new Snapshot(b, means, n);
+    }
+}
@@ -16,12 +16,15 @@ public class VisualizerAgent extends Agent {
     private SimulationPanel panel;
     private JFrame frame;
     private Environment environment;
+    private SimParams params;
+    private WorldDriver driver;
     private PopulationChart chart;
     private JPanel chartCard;
     private ControlPanel controlPanel;
     private ParameterPanel parameterPanel;
     private InspectorPanel inspectorPanel;
     private StatsPanel statsPanel;
+    private TraitPanel traitPanel;
     private JPanel rightSidebar;
     private JPanel centerContainer;
     private JScrollPane paramScroll;
@@ -30,6 +33,12 @@ public class VisualizerAgent extends Agent {
 
     private AgentInfo selectedAgent = null;
 
+    // online Lotka-Volterra fit of the live populations (one sample per chart point)
+    private final LotkaVolterraFitter lvFitter = new LotkaVolterraFitter(120, 1.0);
+
+    // per-tick columnar recording of the world, null when not recording
+    private volatile TimeSeriesRecorder recorder;
+
     // theme system
     public static class ThemeColors {
         // Background colors
@@ -174,6 +183,9 @@ public class VisualizerAgent extends Agent {
         if (statsPanel != null) {
             statsPanel.updateTheme(t);
         }
+        if (traitPanel != null) {
+            traitPanel.updateTheme(t);
+        }
         if (parameterPanel != null) {
             parameterPanel.updateTheme(t);
         }
@@ -194,27 +206,61 @@ public class VisualizerAgent extends Agent {
         }
     }
 
-    // Shared simulation parameters
+    // Simulation parameters, one instance per world (see Environment.getParams())
     public static class SimParams {
         // Prey parameters
-        public static int PREY_ENERGY_START = 60;
-        public static int PREY_ENERGY_MAX = 120;
-        public static int PREY_REPRO_THRESHOLD = 100;
-        public static int PREY_REPRO_COST = 70; // Increased from 50 (Slower growth)
-        public static double PREY_SPEED = 2.5;
+        public int PREY_ENERGY_START = 60;
+        public int PREY_ENERGY_MAX = 120;
+        public int PREY_REPRO_THRESHOLD = 100;
+        public int PREY_REPRO_COST = 70; // Increased from 50 (Slower growth)
+        public double PREY_SPEED = 2.5;
 
         // Predator parameters
-        public static int PRED_ENERGY_START = 250;
-        public static int PRED_ENERGY_MAX = 400;
-        public static int PRED_ENERGY_GAIN = 80;
-        public static int PRED_REPRO_THRESHOLD = 250;
-        public static int PRED_REPRO_COST = 100;
-        public static double PRED_SPEED = 2.9; // Increased from 2.75 (Faster hunters)
+        public int PRED_ENERGY_START = 250;
+        public int PRED_ENERGY_MAX = 400;
+        public int PRED_ENERGY_GAIN = 80;
+        public int PRED_REPRO_THRESHOLD = 250;
+        public int PRED_REPRO_COST = 100;
+        public double PRED_SPEED = 2.9; // Increased from 2.75 (Faster hunters)
 
         // Food parameters
-        public static int FOOD_ENERGY_VALUE = 40;
-        public static int FOOD_SPAWN_RATE = 10;
-        public static int FOOD_PER_SPAWN = 2;
+        public int FOOD_ENERGY_VALUE = 40;
+        public int FOOD_SPAWN_RATE = 10;
+        public int FOOD_PER_SPAWN = 2;
+
+        // Emergency immigration when a species gets too small (off for extinction studies)
+        public boolean IMMIGRATION_ENABLED = true;
+
+        // Pacing: agent cycles and world ticks run TIME_SCALE times faster than real time
+        public double TIME_SCALE = 1.0;
+
+        public long scaledDelay(long millis) {
+            return Math.max(1, Math.round(millis / TIME_SCALE));
+        }
+
+        // Sets a parameter by field name, e.g. set("PREY_REPRO_COST", "60")
+        public void set(String name, String value) {
+            try {
+                java.lang.reflect.Field f = SimParams.class.getField(name);
+                if (f.getType() == int.class) f.setInt(this, (int) Math.round(Double.parseDouble(value)));
+                else if (f.getType() == boolean.class) f.setBoolean(this, Boolean.parseBoolean(value));
+                else f.setDouble(this, Double.parseDouble(value));
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Unknown parameter: " + name);
+            }
+        }
+
+        public SimParams copy() {
+            SimParams c = new SimParams();
+            for (java.lang.reflect.Field f : SimParams.class.getFields()) {
+                try {
+                    f.set(c, f.get(this));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return c;
+        }
     }
 
     protected void setup() {
@@ -223,6 +269,7 @@ public class VisualizerAgent extends Agent {
         } catch (Exception e) {}
 
         environment = Environment.getInstance();
+        params = environment.getParams();
 
         SwingUtilities.invokeLater(() -> {
             frame = new JFrame("Simulation Proie-Prédateur");
@@ -281,6 +328,11 @@ public class VisualizerAgent extends Agent {
             rightSidebar.add(statsPanel);
             rightSidebar.add(Box.createVerticalStrut(15));
 
+            // Trait distributions
+            traitPanel = new TraitPanel();
+            rightSidebar.add(traitPanel);
+            rightSidebar.add(Box.createVerticalStrut(15));
+
             // Parameters Panel
             parameterPanel = new ParameterPanel();
             paramScroll = new JScrollPane(parameterPanel);
@@ -313,47 +365,36 @@ public class VisualizerAgent extends Agent {
             frame.setVisible(true);
         });
 
-        addBehaviour(new TickerBehaviour(this, 33) {
-            private int tickCount = 0;
+        driver = new WorldDriver(environment, getContainerController());
+
+        addBehaviour(new TickerBehaviour(this, params.scaledDelay(33)) {
             protected void onTick() {
                 if (!isRunning) return;
 
-                tickCount++;
-                environment.updateSeason();
-
-                // Seasonal Food
-                int spawnRate = SimParams.FOOD_SPAWN_RATE;
-                int amount = SimParams.FOOD_PER_SPAWN;
-                switch (environment.getCurrentSeason()) {
-                    case SPRING: spawnRate = Math.max(1, spawnRate / 2); amount += 1; break;
-                    case SUMMER: break;
-                    case AUTUMN: spawnRate = spawnRate * 2; break;
-                    case WINTER: spawnRate = spawnRate * 3; break;
-                }
-
-                if (tickCount % spawnRate == 0) {
-                    for (int i = 0; i < amount; i++) {
-                        double x = 50 + Math.random() * (environment.getWidth() - 100);
-                        double y = 50 + Math.random() * (environment.getHeight() - 100);
-                        environment.spawnFood(new Position(x, y));
+                driver.tick();
+                final int tickCount = driver.getTickCount();
+
+                TimeSeriesRecorder rec = recorder;
+                if (rec != null) {
+                    try {
+                        rec.record(environment, tickCount);
+                    } catch (java.io.IOException e) {
+                        System.err.println("Recording stopped: " + e.getMessage());
+                        recorder = null;
+                        rec.close();
                     }
                 }
-
-                // IMMIGRATION SYSTEM (Safety Net)
-                if (tickCount % 100 == 0) { // Check every ~3 seconds
-                    if (environment.getPreyCount() < 6) {
-                        controlPanel.spawnSingleAgent("PreyAgent", "Prey");
-                        controlPanel.spawnSingleAgent("PreyAgent", "Prey");
-                        System.out.println("🚑 Emergency Prey Immigration!");
-                    }
-                    if (environment.getPredatorCount() < 2) {
-                        controlPanel.spawnSingleAgent("PredatorAgent", "Predator");
-                        System.out.println("🚑 Emergency Predator Immigration!");
-                    }
+                if (panel != null && tickCount % 15 == 0 && environment.getProfiler().isEnabled()) {
+                    panel.setProfile(environment.getProfiler().snapshot());
                 }
-
                 if (panel != null) panel.repaint();
-                if (chart != null && tickCount % 3 == 0) chart.updateData(environment.getPreyCount(), environment.getPredatorCount());
+                if (chart != null && tickCount % 3 == 0) {
+                    int preyCount = environment.getPreyCount();
+                    int predCount = environment.getPredatorCount();
+                    chart.updateData(preyCount, predCount);
+                    lvFitter.addSample(preyCount, predCount);
+                    if (tickCount % 30 == 0) chart.setFit(lvFitter.getParameters(), lvFitter.fittedCurve());
+                }
 
                 // Update UI
                 SwingUtilities.invokeLater(() -> {
@@ -363,6 +404,9 @@ public class VisualizerAgent extends Agent {
                     if (statsPanel != null && tickCount % 10 == 0) {
                         statsPanel.updateStats(environment.getStats());
                     }
+                    if (traitPanel != null && tickCount % 10 == 0) {
+                        traitPanel.setSnapshot(environment.getTraits().snapshot());
+                    }
                     if (inspectorPanel != null && selectedAgent != null) {
                         AgentInfo freshInfo = environment.getAllAgents().get(selectedAgent.getAID());
                         if (freshInfo != null) {
@@ -483,10 +527,105 @@ public class VisualizerAgent extends Agent {
         }
 
         public void updateStats(Environment.DeathStats stats) {
-            huntedLabel.setText(String.valueOf(stats.preyHunted));
-            starvedPreyLabel.setText(String.valueOf(stats.preyStarved));
-            oldAgeLabel.setText(String.valueOf(stats.preyOldAge));
-            starvedPredLabel.setText(String.valueOf(stats.predStarved));
+            huntedLabel.setText(String.valueOf(stats.getPreyHunted()));
+            starvedPreyLabel.setText(String.valueOf(stats.getPreyStarved()));
+            oldAgeLabel.setText(String.valueOf(stats.getPreyOldAge()));
+            starvedPredLabel.setText(String.valueOf(stats.getPredStarved()));
+        }
+    }
+
+    // ==========================================
+    // TRAIT PANEL
+    // ==========================================
+    // Speed and vision distributions per species, read from the incrementally
+    // maintained TraitHistogram (no scan of the agents)
+    class TraitPanel extends JPanel {
+        private ThemeColors currentTheme;
+        private TraitHistogram.Snapshot snapshot;
+
+        public TraitPanel() {
+            currentTheme = ThemeColors.getLightTheme();
+            setBackground(currentTheme.cardBackground);
+            setBorder(BorderFactory.createCompoundBorder(
+                    new LineBorder(currentTheme.border, 1, true),
+                    new EmptyBorder(20, 20, 20, 20)
+            ));
+            setPreferredSize(new Dimension(320, 230));
+            setMaximumSize(new Dimension(Integer.MAX_VALUE, 230));
+        }
+
+        public void setSnapshot(TraitHistogram.Snapshot snapshot) {
+            this.snapshot = snapshot;
+            repaint();
+        }
+
+        public void updateTheme(ThemeColors t) {
+            currentTheme = t;
+            setBackground(t.cardBackground);
+            setBorder(BorderFactory.createCompoundBorder(
+                    new LineBorder(t.border, 1, true),
+                    new EmptyBorder(20, 20, 20, 20)
+            ));
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Insets in = getInsets();
+            int x0 = in.left, y0 = in.top;
+            int w = getWidth() - in.left - in.right;
+
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
+            g2d.setColor(currentTheme.secondaryText);
+            g2d.drawString("Distribution des Traits", x0, y0 + 14);
+            if (snapshot == null) return;
+
+            TraitHistogram.Trait[] traits = TraitHistogram.Trait.values();
+            int cellW = (w - 15) / 2;
+            int cellH = 62;
+            for (int s = 0; s < 2; s++) {
+                Color color = s == 0 ? currentTheme.preyColor : currentTheme.predatorColor;
+                for (int t = 0; t < traits.length; t++) {
+                    drawHistogram(g2d, s, traits[t], color, x0 + t * (cellW + 15), y0 + 30 + s * (cellH + 22), cellW, cellH);
+                }
+            }
+        }
+
+        private void drawHistogram(Graphics2D g2d, int species, TraitHistogram.Trait trait, Color color, int x, int y, int w, int h) {
+            long[] bins = snapshot.bins[species][trait.ordinal()];
+            long max = Math.max(1, snapshot.maxBin(species, trait));
+            double barW = (double) w / bins.length;
+            g2d.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 170));
+            for (int b = 0; b < bins.length; b++) {
+                int bh = (int) Math.round((double) bins[b] / max * (h - 16));
+                g2d.fillRect(x + (int) (b * barW), y + h - bh, Math.max(1, (int) barW - 1), bh);
+            }
+            g2d.setColor(currentTheme.border);
+            g2d.drawLine(x, y + h, x + w, y + h);
+
+            // mean marker
+            double mean = snapshot.means[species][trait.ordinal()];
+            if (snapshot.counts[species] > 0) {
+                int mx = x + (int) ((mean - trait.min) / (trait.max - trait.min) * w);
+                mx = Math.max(x, Math.min(x + w, mx));
+                g2d.setColor(currentTheme.primaryText);
+                g2d.drawLine(mx, y + 12, mx, y + h);
+            }
+
+            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            g2d.setColor(currentTheme.mutedText);
+            String label = (species == 0 ? "🐰 " : "🦁 ") + trait.label;
+            g2d.drawString(label, x, y + 9);
+            String value = snapshot.counts[species] > 0
+                    ? (trait == TraitHistogram.Trait.SPEED ? String.format("%.2f", mean) : String.format("%.0f", mean))
+                    : "–";
+            g2d.drawString("μ " + value, x + w - g2d.getFontMetrics().stringWidth("μ " + value), y + 9);
+            g2d.drawString(String.format("%.0f", trait.min), x, y + h + 12);
+            String maxLabel = String.format("%.0f", trait.max);
+            g2d.drawString(maxLabel, x + w - g2d.getFontMetrics().stringWidth(maxLabel), y + h + 12);
         }
     }
 
@@ -602,11 +741,11 @@ public class VisualizerAgent extends Agent {
             if (info.isPrey()) {
                 typeLabel.setText("PROIE");
                 typeLabel.setForeground(currentTheme.preyColor);
-                energyBar.setMaximum(SimParams.PREY_ENERGY_MAX);
+                energyBar.setMaximum(params.PREY_ENERGY_MAX);
             } else {
                 typeLabel.setText("PRÉDATEUR");
                 typeLabel.setForeground(currentTheme.predatorColor);
-                energyBar.setMaximum(SimParams.PRED_ENERGY_MAX);
+                energyBar.setMaximum(params.PRED_ENERGY_MAX);
             }
 
             energyBar.setValue(info.getEnergy());
@@ -803,20 +942,20 @@ public class VisualizerAgent extends Agent {
             card.add(Box.createVerticalStrut(18));
 
             if (type.equals("prey")) {
-                addPreyParameter(card, "Énergie initiale", SimParams.PREY_ENERGY_START, 10, 200, 5);
-                addPreyParameter(card, "Énergie max", SimParams.PREY_ENERGY_MAX, 50, 300, 10);
-                addPreyParameter(card, "Seuil reprod.", SimParams.PREY_REPRO_THRESHOLD, 30, 150, 5);
-                addPreyParameter(card, "Coût reprod.", SimParams.PREY_REPRO_COST, 10, 100, 5);
+                addPreyParameter(card, "Énergie initiale", params.PREY_ENERGY_START, 10, 200, 5);
+                addPreyParameter(card, "Énergie max", params.PREY_ENERGY_MAX, 50, 300, 10);
+                addPreyParameter(card, "Seuil reprod.", params.PREY_REPRO_THRESHOLD, 30, 150, 5);
+                addPreyParameter(card, "Coût reprod.", params.PREY_REPRO_COST, 10, 100, 5);
             } else if (type.equals("pred")) {
-                addPredParameter(card, "Énergie initiale", SimParams.PRED_ENERGY_START, 50, 400, 10);
-                addPredParameter(card, "Énergie max", SimParams.PRED_ENERGY_MAX, 100, 500, 10);
-                addPredParameter(card, "Gain capture", SimParams.PRED_ENERGY_GAIN, 20, 150, 5);
-                addPredParameter(card, "Seuil reprod.", SimParams.PRED_REPRO_THRESHOLD, 50, 300, 10);
-                addPredParameter(card, "Coût reprod.", SimParams.PRED_REPRO_COST, 20, 150, 5);
+                addPredParameter(card, "Énergie initiale", params.PRED_ENERGY_START, 50, 400, 10);
+                addPredParameter(card, "Énergie max", params.PRED_ENERGY_MAX, 100, 500, 10);
+                addPredParameter(card, "Gain capture", params.PRED_ENERGY_GAIN, 20, 150, 5);
+                addPredParameter(card, "Seuil reprod.", params.PRED_REPRO_THRESHOLD, 50, 300, 10);
+                addPredParameter(card, "Coût reprod.", params.PRED_REPRO_COST, 20, 150, 5);
             } else if (type.equals("food")) {
-                addFoodParameter(card, "Valeur énerg.", SimParams.FOOD_ENERGY_VALUE, 10, 100, 5);
-                addFoodParameter(card, "Taux spawn", SimParams.FOOD_SPAWN_RATE, 1, 50, 1);
-                addFoodParameter(card, "Qté par spawn", SimParams.FOOD_PER_SPAWN, 1, 10, 1);
+                addFoodParameter(card, "Valeur énerg.", params.FOOD_ENERGY_VALUE, 10, 100, 5);
+                addFoodParameter(card, "Taux spawn", params.FOOD_SPAWN_RATE, 1, 50, 1);
+                addFoodParameter(card, "Qté par spawn", params.FOOD_PER_SPAWN, 1, 10, 1);
             }
             return card;
         }
@@ -854,18 +993,18 @@ public class VisualizerAgent extends Agent {
         }
         private void applyParameters() {
             try {
-                SimParams.PREY_ENERGY_START = (Integer) preySpinners.get("Énergie initiale").getValue();
-                SimParams.PREY_ENERGY_MAX = (Integer) preySpinners.get("Énergie max").getValue();
-                SimParams.PREY_REPRO_THRESHOLD = (Integer) preySpinners.get("Seuil reprod.").getValue();
-                SimParams.PREY_REPRO_COST = (Integer) preySpinners.get("Coût reprod.").getValue();
-                SimParams.PRED_ENERGY_START = (Integer) predSpinners.get("Énergie initiale").getValue();
-                SimParams.PRED_ENERGY_MAX = (Integer) predSpinners.get("Énergie max").getValue();
-                SimParams.PRED_ENERGY_GAIN = (Integer) predSpinners.get("Gain capture").getValue();
-                SimParams.PRED_REPRO_THRESHOLD = (Integer) predSpinners.get("Seuil reprod.").getValue();
-                SimParams.PRED_REPRO_COST = (Integer) predSpinners.get("Coût reprod.").getValue();
-                SimParams.FOOD_ENERGY_VALUE = (Integer) foodSpinners.get("Valeur énerg.").getValue();
-                SimParams.FOOD_SPAWN_RATE = (Integer) foodSpinners.get("Taux spawn").getValue();
-                SimParams.FOOD_PER_SPAWN = (Integer) foodSpinners.get("Qté par spawn").getValue();
+                params.PREY_ENERGY_START = (Integer) preySpinners.get("Énergie initiale").getValue();
+                params.PREY_ENERGY_MAX = (Integer) preySpinners.get("Énergie max").getValue();
+                params.PREY_REPRO_THRESHOLD = (Integer) preySpinners.get("Seuil reprod.").getValue();
+                params.PREY_REPRO_COST = (Integer) preySpinners.get("Coût reprod.").getValue();
+                params.PRED_ENERGY_START = (Integer) predSpinners.get("Énergie initiale").getValue();
+                params.PRED_ENERGY_MAX = (Integer) predSpinners.get("Énergie max").getValue();
+                params.PRED_ENERGY_GAIN = (Integer) predSpinners.get("Gain capture").getValue();
+                params.PRED_REPRO_THRESHOLD = (Integer) predSpinners.get("Seuil reprod.").getValue();
+                params.PRED_REPRO_COST = (Integer) predSpinners.get("Coût reprod.").getValue();
+                params.FOOD_ENERGY_VALUE = (Integer) foodSpinners.get("Valeur énerg.").getValue();
+                params.FOOD_SPAWN_RATE = (Integer) foodSpinners.get("Taux spawn").getValue();
+                params.FOOD_PER_SPAWN = (Integer) foodSpinners.get("Qté par spawn").getValue();
                 JOptionPane.showMessageDialog(this, "Paramètres appliqués!", "Succès", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception e) {}
         }
@@ -877,8 +1016,9 @@ public class VisualizerAgent extends Agent {
     class ControlPanel extends JPanel {
         private JLabel statusLabel;
         private JSpinner preySpinner, predatorSpinner;
-        private JButton startBtn, pauseBtn, themeToggleBtn;
+        private JButton startBtn, pauseBtn, themeToggleBtn, ensembleBtn;
         private ThemeColors currentTheme;
+        private EnsembleRunner ensemble;
 
         public ControlPanel() {
             setLayout(new BorderLayout());
@@ -929,16 +1069,21 @@ public class VisualizerAgent extends Agent {
             restartBtn.addActionListener(e -> {
                 stopSimulation();
                 for (jade.core.AID aid : new java.util.HashSet<>(environment.getAllAgents().keySet())) environment.unregisterAgent(aid);
-                environment.getAllFoods().clear();
+                environment.clearFood();
                 environment.resetStats(); // RESET STATS
+                environment.getLineage().clear();
                 startBtn.setEnabled(true);
                 pauseBtn.setEnabled(false);
                 statusLabel.setText("PRÊT");
                 statusLabel.setForeground(currentTheme.mutedText);
                 panel.repaint();
                 chart.updateData(0, 0);
+                lvFitter.reset();
+                chart.setFit(null, null);
+                chart.setBands(null);
                 parameterPanel.updateLiveStats(0, 0, 0);
                 statsPanel.updateStats(environment.getStats()); // CLEAR STATS UI
+                traitPanel.setSnapshot(environment.getTraits().snapshot());
                 selectedAgent = null;
                 inspectorPanel.clearInfo();
             });
@@ -955,8 +1100,30 @@ public class VisualizerAgent extends Agent {
             addPrey.addActionListener(e -> spawnSingleAgent("PreyAgent", "Prey"));
             JButton addPred = createButton("+ 🦁", currentTheme.predatorColor);
             addPred.addActionListener(e -> spawnSingleAgent("PredatorAgent", "Predator"));
+            JButton meanFieldBtn = createButton("≈", currentTheme.buttonBackground);
+            meanFieldBtn.setToolTipText("Modèle champ moyen");
+            meanFieldBtn.addActionListener(e -> new MeanFieldViewer(environment));
+            JButton profilerBtn = createButton("⏱", currentTheme.buttonBackground);
+            profilerBtn.setToolTipText("Profil des phases et carte des coûts");
+            profilerBtn.addActionListener(e -> {
+                PhaseProfiler profiler = environment.getProfiler();
+                profiler.setEnabled(!profiler.isEnabled());
+                if (profiler.isEnabled()) profiler.snapshot(); // start the first interval now
+                else panel.setProfile(null);
+                panel.repaint();
+            });
+            JButton recordBtn = createButton("⏺", currentTheme.buttonBackground);
+            recordBtn.setToolTipText("Enregistrer la série temporelle");
+            recordBtn.addActionListener(e -> toggleRecording(recordBtn));
+            ensembleBtn = createButton("Σ", currentTheme.buttonBackground);
+            ensembleBtn.setToolTipText("Ensemble Monte Carlo (bandes 10–90%)");
+            ensembleBtn.addActionListener(e -> runEnsemble());
             rightPanel.add(addPrey);
             rightPanel.add(addPred);
+            rightPanel.add(meanFieldBtn);
+            rightPanel.add(profilerBtn);
+            rightPanel.add(recordBtn);
+            rightPanel.add(ensembleBtn);
             add(rightPanel, BorderLayout.EAST);
         }
 
@@ -1044,32 +1211,90 @@ public class VisualizerAgent extends Agent {
         public void spawnInitialPopulation() {
             int preyCount = (Integer) preySpinner.getValue();
             int predatorCount = (Integer) predatorSpinner.getValue();
-            for (int i = 0; i < preyCount; i++) spawnSingleAgent("PreyAgent", "Prey");
-            for (int i = 0; i < predatorCount; i++) spawnSingleAgent("PredatorAgent", "Predator");
+            driver.spawnInitialPopulation(preyCount, predatorCount);
         }
 
         public void spawnSingleAgent(String className, String prefix) {
+            boolean prey = prefix.equals("Prey");
+            driver.spawnBatch("manual", prey ? 1 : 0, prey ? 0 : 1);
+        }
+
+        // Starts / stops recording every tick into recordings/run-<timestamp>
+        private void toggleRecording(JButton button) {
+            TimeSeriesRecorder current = recorder;
+            if (current != null) {
+                recorder = null;
+                current.close();
+                button.setText("⏺");
+                button.setToolTipText("Enregistrer la série temporelle");
+                System.out.println("⏺ " + current.getTotalRows() + " ticks enregistrés dans " + current.getDirectory());
+                return;
+            }
             try {
-                // RANDOMIZE GENETICS FOR INITIAL POPULATION
-                double baseSpeed = prefix.equals("Prey") ? SimParams.PREY_SPEED : SimParams.PRED_SPEED;
-                double baseVision = prefix.equals("Prey") ? 70.0 : 110.0;
-
-                // +/- 15% variation
-                double speed = baseSpeed * (0.85 + Math.random() * 0.30);
-                double vision = baseVision * (0.85 + Math.random() * 0.30);
-
-                Object[] args = new Object[]{
-                        Math.random() * environment.getWidth(),
-                        Math.random() * environment.getHeight(),
-                        speed,
-                        vision
-                };
-                String name = prefix + System.nanoTime();
-                getContainerController().createNewAgent(name, className, args).start();
-            } catch (Exception ex) {
-                System.err.println("Error spawning agent: " + ex.getMessage());
+                java.nio.file.Path dir = java.nio.file.Paths.get("recordings", "run-" + System.currentTimeMillis());
+                recorder = new TimeSeriesRecorder(dir);
+                button.setText("■");
+                button.setToolTipText("Arrêter l'enregistrement (" + dir + ")");
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(frame, "Enregistrement impossible : " + ex.getMessage());
             }
         }
+
+        // Runs N seeded headless replicas of the current settings in the background;
+        // the chart shows their 10-90% bands while they progress
+        private void runEnsemble() {
+            if (ensemble != null) {
+                ensemble.cancel();
+                return;
+            }
+            String answer = JOptionPane.showInputDialog(frame, "Nombre de répliques :", "32");
+            if (answer == null) return;
+            int replicas;
+            try {
+                replicas = Math.max(1, Integer.parseInt(answer.trim()));
+            } catch (NumberFormatException ex) {
+                return;
+            }
+
+            VisualizerAgent.SimParams replicaParams = params.copy();
+            replicaParams.TIME_SCALE = Math.max(replicaParams.TIME_SCALE, 4.0);
+            HeadlessSimulation.RunConfig config = new HeadlessSimulation.RunConfig();
+            config.prey = (Integer) preySpinner.getValue();
+            config.predators = (Integer) predatorSpinner.getValue();
+            config.sampleEvery = 3; // same cadence as the live chart
+            config.ticks = 1500;
+
+            EnsembleRunner runner = new EnsembleRunner(replicaParams, config);
+            ensemble = runner;
+            ensembleBtn.setText("■");
+            ensembleBtn.setToolTipText("Arrêter l'ensemble");
+
+            Timer refresh = new Timer(500, null);
+            refresh.addActionListener(e -> {
+                chart.setBands(runner.getStatistics().snapshot());
+                statusLabel.setText("ENSEMBLE " + runner.getFinished() + "/" + replicas);
+            });
+            refresh.start();
+
+            int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            Thread worker = new Thread(() -> {
+                try {
+                    runner.run(replicas, System.nanoTime(), parallelism);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                SwingUtilities.invokeLater(() -> {
+                    refresh.stop();
+                    chart.setBands(runner.getStatistics().snapshot());
+                    statusLabel.setText(isRunning ? "EN COURS" : "PRÊT");
+                    ensembleBtn.setText("Σ");
+                    ensembleBtn.setToolTipText("Ensemble Monte Carlo (bandes 10–90%)");
+                    ensemble = null;
+                });
+            }, "Ensemble");
+            worker.setDaemon(true);
+            worker.start();
+        }
     }
 
     // ==========================================
@@ -1082,6 +1307,7 @@ public class VisualizerAgent extends Agent {
         private List<Color> puddleColors = new ArrayList<>();
         private boolean terrainInitialized = false;
         private ThemeColors currentTheme;
+        private volatile PhaseProfiler.Snapshot profile; // null: overlay hidden
 
         public SimulationPanel() {
             currentTheme = ThemeColors.getLightTheme();
@@ -1129,6 +1355,9 @@ public class VisualizerAgent extends Agent {
 
         @Override
         protected void paintComponent(Graphics g) {
+            long paintStart = System.nanoTime();
+            SimulationEvents.Repaint repaintEvent = new SimulationEvents.Repaint();
+            repaintEvent.begin();
             super.paintComponent(g);
             if (!terrainInitialized && environment != null) initTerrainDecorations();
 
@@ -1174,9 +1403,13 @@ public class VisualizerAgent extends Agent {
                 g2d.setColor(treeColor); g2d.fill(tree);
             }
 
+            PhaseProfiler.Snapshot p = profile;
+            if (p != null) drawHeatmap(g2d, p);
+
             // draw agents
             Map<jade.core.AID, AgentInfo> agents = environment.getAllAgents();
-            for (Food food : environment.getAllFoods()) {
+            List<Food> foods = environment.getAllFoods();
+            for (Food food : foods) {
                 Position pos = food.getPosition();
                 g2d.setColor(new Color(255, 220, 0, 50));
                 g2d.fill(new Ellipse2D.Double(pos.getX()-8, pos.getY()-8, 16, 16));
@@ -1213,6 +1446,73 @@ public class VisualizerAgent extends Agent {
                 case WINTER: seasonText = "❄️ HIVER"; break;
             }
             g2d.drawString(seasonText, 20, 30);
+
+            if (p != null) drawPhaseBreakdown(g2d, p);
+
+            if (repaintEvent.shouldCommit()) {
+                repaintEvent.agents = agents.size();
+                repaintEvent.food = foods.size();
+                repaintEvent.commit();
+            }
+            environment.getProfiler().record(PhaseProfiler.Phase.REPAINT, System.nanoTime() - paintStart);
+        }
+
+        public void setProfile(PhaseProfiler.Snapshot snapshot) {
+            profile = snapshot;
+        }
+
+        // Agent time spent per map cell, relative to the most expensive cell
+        private void drawHeatmap(Graphics2D g2d, PhaseProfiler.Snapshot p) {
+            int size = PhaseProfiler.CELL_SIZE;
+            if (p.maxCell > 0) {
+                for (int cy = 0; cy < p.rows; cy++) {
+                    for (int cx = 0; cx < p.cols; cx++) {
+                        double share = p.cellMillisPerSecond[cy * p.cols + cx] / p.maxCell;
+                        if (share < 0.02) continue;
+                        g2d.setColor(new Color(255, (int) (200 * (1 - share)), 0, (int) (30 + 110 * share)));
+                        g2d.fillRect(cx * size, cy * size, size, size);
+                    }
+                }
+            }
+        }
+
+        private void drawPhaseBreakdown(Graphics2D g2d, PhaseProfiler.Snapshot p) {
+            PhaseProfiler.Phase[] phases = PhaseProfiler.Phase.values();
+            Color[] colors = {
+                    new Color(52, 152, 219), new Color(155, 89, 182), new Color(46, 204, 113),
+                    new Color(231, 76, 60), new Color(241, 196, 15), new Color(149, 165, 166)
+            };
+            double total = 0;
+            for (double ms : p.phaseMillisPerTick) total += ms;
+
+            int w = 250, h = 52 + phases.length * 18;
+            int x = getWidth() - w - 15, y = 15;
+            g2d.setColor(isDarkMode ? new Color(20, 25, 35, 220) : new Color(255, 255, 255, 225));
+            g2d.fillRoundRect(x, y, w, h, 12, 12);
+            g2d.setColor(currentTheme.primaryText);
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
+            g2d.drawString(String.format("Coût par tick : %.2f ms CPU", total), x + 12, y + 20);
+
+            // stacked bar
+            int barX = x + 12, barW = w - 24, barY = y + 28;
+            int offset = 0;
+            for (int i = 0; i < phases.length; i++) {
+                int segment = total > 0 ? (int) Math.round(barW * p.phaseMillisPerTick[i] / total) : 0;
+                g2d.setColor(colors[i]);
+                g2d.fillRect(barX + offset, barY, Math.min(segment, barW - offset), 10);
+                offset += segment;
+            }
+
+            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            for (int i = 0; i < phases.length; i++) {
+                int rowY = barY + 28 + i * 18;
+                g2d.setColor(colors[i]);
+                g2d.fillRect(barX, rowY - 9, 10, 10);
+                g2d.setColor(currentTheme.secondaryText);
+                g2d.drawString(phases[i].label, barX + 16, rowY);
+                double share = total > 0 ? 100 * p.phaseMillisPerTick[i] / total : 0;
+                g2d.drawString(String.format("%.3f ms  %4.1f%%", p.phaseMillisPerTick[i], share), barX + 130, rowY);
+            }
         }
     }
 
@@ -1225,6 +1525,15 @@ public class VisualizerAgent extends Agent {
         private static final int MAX_POINTS = 200;
         private ThemeColors currentTheme;
 
+        // fitted Lotka-Volterra overlay
+        private int totalSamples = 0;
+        private int fitEndSample = 0;
+        private double[] fitParams;
+        private double[][] fitCurve;
+
+        // Monte Carlo ensemble bands, indexed by sample number since the start
+        private EnsembleRunner.Snapshot bands;
+
         public PopulationChart() {
             currentTheme = ThemeColors.getLightTheme();
             setPreferredSize(new Dimension(900, 200));
@@ -1240,6 +1549,7 @@ public class VisualizerAgent extends Agent {
         public void updateData(int preyCount, int predatorCount) {
             preyHistory.add(preyCount);
             predatorHistory.add(predatorCount);
+            totalSamples++;
             if (preyHistory.size() > MAX_POINTS) {
                 preyHistory.remove(0);
                 predatorHistory.remove(0);
@@ -1247,13 +1557,26 @@ public class VisualizerAgent extends Agent {
             repaint();
         }
 
+        public void setFit(double[] params, double[][] curve) {
+            fitParams = params;
+            fitCurve = curve;
+            fitEndSample = totalSamples;
+            repaint();
+        }
+
+        public void setBands(EnsembleRunner.Snapshot snapshot) {
+            bands = snapshot;
+            repaint();
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            if (preyHistory.isEmpty()) return;
+            EnsembleRunner.Snapshot band = bands;
+            if (preyHistory.isEmpty() && band == null) return;
 
             int width = getWidth();
             int height = getHeight();
@@ -1262,6 +1585,13 @@ public class VisualizerAgent extends Agent {
                     preyHistory.stream().max(Integer::compareTo).orElse(1),
                     predatorHistory.stream().max(Integer::compareTo).orElse(1)
             ));
+            // sample number of the leftmost history point
+            int offset = Math.max(0, totalSamples - preyHistory.size());
+            if (band != null) {
+                for (int i = offset; i < Math.min(band.size(), offset + MAX_POINTS); i++) {
+                    maxPop = Math.max(maxPop, (int) Math.ceil(Math.max(band.preyHigh[i], band.predHigh[i])));
+                }
+            }
 
             // Grid background
             g2d.setColor(isDarkMode ? new Color(25, 30, 40) : new Color(245, 245, 245));
@@ -1278,6 +1608,11 @@ public class VisualizerAgent extends Agent {
             double xScale = (double) (width - 2 * padding) / MAX_POINTS;
             double yScale = (double) (height - 2 * padding) / maxPop;
 
+            if (band != null) {
+                drawBand(g2d, band.preyLow, band.preyHigh, band.preyMedian, offset, currentTheme.preyColor, xScale, yScale, padding, height);
+                drawBand(g2d, band.predLow, band.predHigh, band.predMedian, offset, currentTheme.predatorColor, xScale, yScale, padding, height);
+            }
+
             // Prey curve
             g2d.setColor(currentTheme.preyColor);
             g2d.setStroke(new BasicStroke(2f));
@@ -1286,6 +1621,66 @@ public class VisualizerAgent extends Agent {
             // Predator curve
             g2d.setColor(currentTheme.predatorColor);
             drawCurve(g2d, predatorHistory, xScale, yScale, padding, height);
+
+            drawFit(g2d, xScale, yScale, padding, width, height);
+        }
+
+        private void drawFit(Graphics2D g2d, double xScale, double yScale, int padding, int width, int height) {
+            double[][] curve = fitCurve;
+            double[] params = fitParams;
+            if (curve == null || params == null) return;
+
+            // last fitted point lines up with the sample taken when the fit was computed
+            int endIndex = preyHistory.size() - 1 - (totalSamples - fitEndSample);
+            Stroke dashed = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{6f, 4f}, 0f);
+            g2d.setStroke(dashed);
+            for (int s = 0; s < 2; s++) {
+                Color c = s == 0 ? currentTheme.preyColor : currentTheme.predatorColor;
+                g2d.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 160));
+                double[] values = curve[s];
+                int start = endIndex - (values.length - 1);
+                for (int i = 1; i < values.length; i++) {
+                    if (start + i - 1 < 0) continue;
+                    int x1 = padding + (int) ((start + i - 1) * xScale);
+                    int y1 = height - padding - (int) (values[i - 1] * yScale);
+                    int x2 = padding + (int) ((start + i) * xScale);
+                    int y2 = height - padding - (int) (values[i] * yScale);
+                    y1 = Math.max(padding, y1);
+                    y2 = Math.max(padding, y2);
+                    g2d.drawLine(x1, y1, x2, y2);
+                }
+            }
+            g2d.setStroke(new BasicStroke(1f));
+
+            g2d.setColor(currentTheme.secondaryText);
+            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            g2d.drawString(String.format("LV ajusté: α=%.3f β=%.4f γ=%.3f δ=%.4f",
+                    params[0], params[1], params[2], params[3]), width - padding - 300, padding - 10);
+        }
+
+        // Shaded 10-90% quantile band with the ensemble median on top
+        private void drawBand(Graphics2D g2d, double[] low, double[] high, double[] median, int offset, Color c,
+                              double xScale, double yScale, int padding, int height) {
+            int count = Math.min(low.length - offset, MAX_POINTS);
+            if (count < 2) return;
+            int[] xs = new int[count * 2];
+            int[] ys = new int[count * 2];
+            for (int i = 0; i < count; i++) {
+                int x = padding + (int) (i * xScale);
+                xs[i] = x;
+                ys[i] = height - padding - (int) (high[offset + i] * yScale);
+                xs[count * 2 - 1 - i] = x;
+                ys[count * 2 - 1 - i] = height - padding - (int) (low[offset + i] * yScale);
+            }
+            g2d.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 45));
+            g2d.fillPolygon(xs, ys, count * 2);
+
+            g2d.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 130));
+            g2d.setStroke(new BasicStroke(1f));
+            for (int i = 1; i < count; i++) {
+                g2d.drawLine(padding + (int) ((i - 1) * xScale), height - padding - (int) (median[offset + i - 1] * yScale),
+                        padding + (int) (i * xScale), height - padding - (int) (median[offset + i] * yScale));
+            }
         }
 
         private void drawCurve(Graphics2D g2d, List<Integer> history, double xScale, double yScale, int padding, int height) {
@@ -0,0 +1,120 @@
+import jade.wrapper.AgentContainer;
+import java.util.Random;
+
+// Per-tick world logic shared by the GUI ticker and headless runs:
+// seasons, seasonal food spawning and the (optional) immigration safety net.
+public class WorldDriver {
+    private final Environment environment;
+    private final VisualizerAgent.SimParams params;
+    private final AgentContainer container;
+    private final Random random;
+    private int tickCount = 0;
+
+    public WorldDriver(Environment environment, AgentContainer container) {
+        this.environment = environment;
+        this.params = environment.getParams();
+        this.container = container;
+        this.random = environment.getRandom();
+    }
+
+    public int getTickCount() { return tickCount; }
+
+    public void reset() { tickCount = 0; }
+
+    public void tick() {
+        SimulationEvents.Tick event = new SimulationEvents.Tick();
+        event.begin();
+        tickCount++;
+        environment.setTick(tickCount);
+        environment.updateSeason();
+        environment.getThreat().recompute(environment.getAgentsView());
+
+        // Seasonal Food
+        int spawnRate = params.FOOD_SPAWN_RATE;
+        int amount = params.FOOD_PER_SPAWN;
+        switch (environment.getCurrentSeason()) {
+            case SPRING: spawnRate = Math.max(1, spawnRate / 2); amount += 1; break;
+            case SUMMER: break;
+            case AUTUMN: spawnRate = spawnRate * 2; break;
+            case WINTER: spawnRate = spawnRate * 3; break;
+        }
+
+        boolean foodSpawned = tickCount % spawnRate == 0;
+        if (foodSpawned) {
+            long spawnStart = System.nanoTime();
+            for (int i = 0; i < amount; i++) {
+                double x = 50 + random.nextDouble() * (environment.getWidth() - 100);
+                double y = 50 + random.nextDouble() * (environment.getHeight() - 100);
+                environment.spawnFood(new Position(x, y));
+            }
+            environment.getProfiler().record(PhaseProfiler.Phase.FOOD_SPAWN, System.nanoTime() - spawnStart);
+        }
+        environment.getProfiler().tick();
+
+        // IMMIGRATION SYSTEM (Safety Net)
+        if (params.IMMIGRATION_ENABLED && tickCount % 100 == 0) { // Check every ~3 seconds
+            if (environment.getPreyCount() < 6) {
+                spawnBatch("immigration", 2, 0);
+                EventLog.info("🚑 Emergency Prey Immigration!");
+            }
+            if (environment.getPredatorCount() < 2) {
+                spawnBatch("immigration", 0, 1);
+                EventLog.info("🚑 Emergency Predator Immigration!");
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.world = environment.getId();
+            event.tick = tickCount;
+            event.prey = environment.getPreyCount();
+            event.predators = environment.getPredatorCount();
+            event.food = environment.getFoodCount();
+            event.foodSpawned = foodSpawned ? amount : 0;
+            event.commit();
+        }
+    }
+
+    public void spawnInitialPopulation(int preyCount, int predatorCount) {
+        spawnBatch("initial", preyCount, predatorCount);
+    }
+
+    // reason: initial, immigration or manual (GUI buttons)
+    public void spawnBatch(String reason, int preyCount, int predatorCount) {
+        SimulationEvents.SpawnBatch event = new SimulationEvents.SpawnBatch();
+        event.begin();
+        for (int i = 0; i < preyCount; i++) spawnAgent("PreyAgent", "Prey");
+        for (int i = 0; i < predatorCount; i++) spawnAgent("PredatorAgent", "Predator");
+        if (event.shouldCommit()) {
+            event.world = environment.getId();
+            event.reason = reason;
+            event.prey = preyCount;
+            event.predators = predatorCount;
+            event.commit();
+        }
+    }
+
+    public void spawnAgent(String className, String prefix) {
+        try {
+            // RANDOMIZE GENETICS FOR INITIAL POPULATION
+            double baseSpeed = prefix.equals("Prey") ? params.PREY_SPEED : params.PRED_SPEED;
+            double baseVision = prefix.equals("Prey") ? 70.0 : 110.0;
+
+            // +/- 15% variation
+            double speed = baseSpeed * (0.85 + random.nextDouble() * 0.30);
+            double vision = baseVision * (0.85 + random.nextDouble() * 0.30);
+
+            Object[] args = new Object[]{
+                    random.nextDouble() * environment.getWidth(),
+                    random.nextDouble() * environment.getHeight(),
+                    speed,
+                    vision,
+                    environment
+            };
+            String name = prefix + "_w" + environment.getId() + "_" + System.nanoTime();
+            container.createNewAgent(name, className, args).start();
+        } catch (Exception ex) {
+            System.err.println("Error spawning agent: " + ex.getMessage());
+        }
+    }
+}